@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractModelObject;
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph.Dependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the stages of a graph request on synthetic graphs: building the
+ * snapshot with its connected components, calculating the graph of a view and of
+ * a single project and writing the graphviz code.
+ * Run with "-prof gc" to see the allocation rate of each stage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependencyGraphBenchmark {
+    private static final String ROOT_URL = "http://hudson.example.com/";
+    private static final int JOB_DEPTH = 3;
+
+    @Param({"CHAIN", "FAN_OUT", "DENSE_DAG", "SMALL_COMPONENTS"})
+    public SyntheticGraph.Shape shape;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int projectCount;
+
+    private SyntheticGraph graph;
+    private DependencyGraphIndex index;
+    private VisibilityCache visibility;
+    private Set<AbstractProject<?,?>> viewProjects;
+    private Set<Dependency> viewDependencies;
+    private AbstractProject<?,?> job;
+    private final AbstractDependencyGraphAction action = new BenchmarkAction();
+
+    @Setup
+    public void setUp() {
+        graph = new SyntheticGraph(shape, projectCount, 42);
+        index = graph.newIndex();
+        visibility = VisibilityCache.allReadable(index);
+        CalculateDeps calculateDeps = calculateView();
+        viewProjects = calculateDeps.getProjects();
+        viewDependencies = calculateDeps.getDependencies();
+        job = graph.getProjects().get(projectCount / 2);
+    }
+
+    /**
+     * Snapshot of the dependency graph including the connected components
+     */
+    @Benchmark
+    public DependencyGraphIndex buildIndex() {
+        return graph.newIndex();
+    }
+
+    /**
+     * Graph of a view containing all projects
+     */
+    @Benchmark
+    public int calculateViewGraph() {
+        return calculateView().getDependencies().size();
+    }
+
+    /**
+     * Graph around a single project, limited in depth
+     */
+    @Benchmark
+    public int calculateJobGraph() {
+        return new CalculateDeps(Collections.singleton(job), JOB_DEPTH, CalculateDeps.Direction.BOTH, index, visibility)
+                .getDependencies().size();
+    }
+
+    /**
+     * Graphviz code of the view graph, including sorting the nodes and edges
+     */
+    @Benchmark
+    public long generateDotText() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        action.generateDotText(viewProjects, viewDependencies, ROOT_URL, writer);
+        return writer.count;
+    }
+
+    /**
+     * Digest of the graphviz code, which is the key of the render cache
+     */
+    @Benchmark
+    public String dotDigest() throws IOException {
+        return action.new GraphDot(viewProjects, viewDependencies, ROOT_URL).getDigest();
+    }
+
+    private CalculateDeps calculateView() {
+        CalculateDeps calculateDeps = new CalculateDeps(graph.getProjects(), CalculateDeps.UNLIMITED_DEPTH,
+                CalculateDeps.Direction.BOTH, index, visibility);
+        calculateDeps.calculateNodesAndDependencies();
+        return calculateDeps;
+    }
+
+    /**
+     * Discards the written characters, only counting them
+     */
+    private static class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class BenchmarkAction extends AbstractDependencyGraphAction {
+        @Override
+        protected Collection<? extends AbstractProject<?, ?>> getProjectsForDepgraph() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getTitle() {
+            return "Benchmark";
+        }
+
+        @Override
+        public AbstractModelObject getParentObject() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractItem;
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph;
+import hudson.model.DependencyGraph.Dependency;
+import hudson.model.FreeStyleProject;
+import hudson.model.Hudson;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Dependency graph of generated projects, built without a running Hudson.
+ * The projects and the graph are instantiated without calling their constructors,
+ * which need Hudson, and only get the fields which are used by this plugin.
+ * Their urls are the same as of projects in the root of Hudson.
+ */
+public class SyntheticGraph {
+    private static final Objenesis OBJENESIS = new ObjenesisStd();
+    // parent of the projects, which is not initialized either, but Hudson#getUrl does not need any field
+    private static final Hudson PARENT = OBJENESIS.newInstance(Hudson.class);
+
+    /**
+     * Shape of the generated graph
+     */
+    public enum Shape {
+        /**
+         * One long chain: p0 -> p1 -> ... -> pn
+         */
+        CHAIN,
+        /**
+         * A tree where every project triggers up to 50 downstream projects
+         */
+        FAN_OUT,
+        /**
+         * A DAG where every project depends on up to 5 of the 100 projects before it
+         */
+        DENSE_DAG,
+        /**
+         * Many components of 10 projects, each a chain with some shortcut edges
+         */
+        SMALL_COMPONENTS
+    }
+
+    private static final int FAN_OUT = 50;
+    private static final int DAG_WINDOW = 100;
+    private static final int DAG_UPSTREAMS = 5;
+    private static final int COMPONENT_SIZE = 10;
+
+    private final List<AbstractProject<?,?>> projects;
+    private final DependencyGraph graph;
+
+    /**
+     * @param seed seed for the random edges, so runs are comparable
+     */
+    public SyntheticGraph(Shape shape, int projectCount, long seed) {
+        List<AbstractProject<?,?>> projectList = new ArrayList<AbstractProject<?, ?>>(projectCount);
+        for (int i = 0; i < projectCount; i++) {
+            projectList.add(newProject(String.format("job-%06d", i)));
+        }
+        projects = Collections.unmodifiableList(projectList);
+        graph = newDependencyGraph();
+        Random random = new Random(seed);
+        for (int i = 1; i < projectCount; i++) {
+            switch (shape) {
+                case CHAIN:
+                    addDependency(i - 1, i);
+                    break;
+                case FAN_OUT:
+                    addDependency((i - 1) / FAN_OUT, i);
+                    break;
+                case DENSE_DAG:
+                    int window = Math.min(i, DAG_WINDOW);
+                    for (int k = 0; k < DAG_UPSTREAMS; k++) {
+                        addDependency(i - 1 - random.nextInt(window), i);
+                    }
+                    break;
+                case SMALL_COMPONENTS:
+                    int offset = i % COMPONENT_SIZE;
+                    if (offset > 0) {
+                        addDependency(i - 1, i);
+                        if (offset > 1 && random.nextBoolean()) {
+                            addDependency(i - offset + random.nextInt(offset - 1), i);
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException(shape.name());
+            }
+        }
+    }
+
+    public List<AbstractProject<?, ?>> getProjects() {
+        return projects;
+    }
+
+    public DependencyGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return a snapshot of the graph as used by {@link CalculateDeps}
+     */
+    public DependencyGraphIndex newIndex() {
+        return new DependencyGraphIndex(graph, projects);
+    }
+
+    private void addDependency(int upstream, int downstream) {
+        graph.addDependency(new Dependency(projects.get(upstream), projects.get(downstream)));
+    }
+
+    private static AbstractProject<?,?> newProject(String name) {
+        FreeStyleProject project = OBJENESIS.newInstance(FreeStyleProject.class);
+        setField(AbstractItem.class, project, "name", name);
+        setField(AbstractItem.class, project, "parent", PARENT);
+        return project;
+    }
+
+    private static DependencyGraph newDependencyGraph() {
+        DependencyGraph graph = OBJENESIS.newInstance(DependencyGraph.class);
+        setField(DependencyGraph.class, graph, "forward", new HashMap<Object, Object>());
+        setField(DependencyGraph.class, graph, "backward", new HashMap<Object, Object>());
+        return graph;
+    }
+
+    private static void setField(Class<?> declaringClass, Object target, String name, Object value) {
+        try {
+            Field field = declaringClass.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
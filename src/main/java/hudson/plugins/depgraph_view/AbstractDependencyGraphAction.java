@@ -24,24 +24,55 @@ package hudson.plugins.depgraph_view;
 
 import com.google.common.collect.ImmutableMap;
 import hudson.Launcher;
+import hudson.PluginWrapper;
+import hudson.Proc;
+import hudson.Util;
 import hudson.model.AbstractModelObject;
 import hudson.model.AbstractProject;
 import hudson.model.Action;
 import hudson.model.DependencyGraph.Dependency;
 import hudson.model.Hudson;
 import hudson.plugins.depgraph_view.DependencyGraphProperty.DescriptorImpl;
+import hudson.plugins.depgraph_view.RenderScheduler.RenderFailedException;
+import hudson.plugins.depgraph_view.RenderScheduler.RenderRejectedException;
+import hudson.plugins.depgraph_view.RenderScheduler.RenderTimeoutException;
 import hudson.util.LogTaskListener;
+import hudson.util.IOException2;
+import hudson.util.NullStream;
+import org.acegisecurity.Authentication;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 
 import javax.servlet.http.HttpServletResponse;
-import java.io.ByteArrayInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.Writer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Basic action for creating a Dot-Image of the DependencyGraph
@@ -58,20 +89,77 @@ public abstract class AbstractDependencyGraphAction implements Action {
     protected static final ImmutableMap<String, SupportedImageType> extension2Type =
             ImmutableMap.of(
                     "png",SupportedImageType.of("image/png", "png"),
-                    "svg",SupportedImageType.of("image/svg", "svg"),
-                    "map",SupportedImageType.of("image/cmapx", "cmapx"),
-                    "gv",SupportedImageType.of("text/plain", "gv") // Special case - do no processing
+                    "svg",SupportedImageType.of("image/svg", "svg", true),
+                    "map",SupportedImageType.of("image/cmapx", "cmapx", true),
+                    "gv",SupportedImageType.of("text/plain;charset=UTF-8", "gv", true), // Special case - do no processing
+                    "json",SupportedImageType.of("application/json;charset=UTF-8", "json", true) // Special case - written without dot
             );
 
-    //  Lexicographic order of the dependencies
-    private static final Comparator<Dependency> DEP_COMPARATOR = new Comparator<Dependency>() {
-        @Override
-        public int compare(Dependency o1, Dependency o2) {
-            int down = (PROJECT_COMPARATOR.compare(o1.getDownstreamProject(),o2.getDownstreamProject()));
-            return down != 0 ? down : PROJECT_COMPARATOR
-                    .compare(o1.getUpstreamProject(),o2.getUpstreamProject());
-        }
-    };
+    /**
+     * Maps the -T argument of a requested output to the -T argument of an output
+     * which is rendered by the same dot run, since the page requests both
+     * (the image and its client side image map)
+     */
+    private static final ImmutableMap<String, String> companionTypes =
+            ImmutableMap.of(
+                    "png", "cmapx",
+                    "svg", "cmapx",
+                    "cmapx", "png"
+            );
+
+    private static final String UTF8 = "UTF-8";
+
+    // Distinguishes gzip compressed outputs from the raw ones in the render cache
+    private static final String GZIP_SUFFIX = ".gz";
+
+    // Distinguishes the outputs of the JavaGraphRenderer from those of dot in the render cache
+    private static final String JAVA_RENDERER_PREFIX = "java-";
+
+    // Concurrent requests of the same output wait for one render
+    private static final SingleFlight<RenderedGraph> renderFlights = new SingleFlight<RenderedGraph>();
+
+    // Concurrent renders of the same graphviz code, by the key of the output in the RenderCache,
+    // so users whose requests differ in the entity tag still share one run of dot
+    private static final SingleFlight<Map<String, byte[]>> outputFlights = new SingleFlight<Map<String, byte[]>>();
+
+    // Renders started by requests with async=true, by the entity tag of their output, the oldest first
+    private static final Map<String, AsyncRender> asyncRenders = new LinkedHashMap<String, AsyncRender>();
+
+    // Maximum number of renders with async=true which are running or kept for the client
+    private static final int MAX_ASYNC_RENDERS = Integer.getInteger(
+            AbstractDependencyGraphAction.class.getName() + ".maxAsyncRenders", 100);
+
+    // Maximum bytes of the results of renders with async=true which are kept for the client
+    private static final long MAX_ASYNC_BYTES = Long.getLong(
+            AbstractDependencyGraphAction.class.getName() + ".maxAsyncBytes", 16 * 1024 * 1024);
+
+    // Runs the renders of requests with async=true, so they do not block a request thread
+    private static final ExecutorService renderExecutor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "depgraph-view renderer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // Milliseconds for which the result of a render with async=true is kept for the client
+    private static final long ASYNC_RESULT_MILLIS = 2 * 60 * 1000;
+
+    // Seconds after which a client should ask again for a render with async=true
+    private static final int ASYNC_RETRY_AFTER_SECONDS = 1;
+
+    // Seconds after which a client should retry a rejected render
+    private static final int RETRY_AFTER_SECONDS = 5;
+
+    // Distinguishes the entity tags of different runs of Hudson, since the versions
+    // of the dependency graph and of the permissions start at the same value on each start
+    private static final String ETAG_NONCE = Long.toHexString(System.currentTimeMillis()) + '-'
+            + Long.toHexString(new Random().nextLong());
+
+    // Size of the buffer of the pipe to the standard input of dot
+    private static final int PIPE_SIZE = 64 * 1024;
 
     // Compares projects by name
     private static final Comparator<AbstractProject<?,?>> PROJECT_COMPARATOR = new Comparator<AbstractProject<?,?>>() {
@@ -82,20 +170,103 @@ public abstract class AbstractDependencyGraphAction implements Action {
     };
 
     // Data Structure to encode the content type and the -T argument for the graphviz tools
+    // and whether the output is text which is worth compressing
     protected static class SupportedImageType {
         final String contentType;
         final String dotType;
+        final boolean compressible;
 
         private SupportedImageType(String contentType,
-                                   String dotType) {
+                                   String dotType,
+                                   boolean compressible) {
             this.contentType = contentType;
             this.dotType = dotType;
+            this.compressible = compressible;
         }
 
         public static SupportedImageType of(String contentType, String dotType) {
-            return new SupportedImageType(contentType, dotType);
+            return new SupportedImageType(contentType, dotType, false);
+        }
+
+        public static SupportedImageType of(String contentType, String dotType, boolean compressible) {
+            return new SupportedImageType(contentType, dotType, compressible);
+        }
+
+    }
+
+    /**
+     * Graphviz code of a set of projects and dependencies,
+     * which is written on demand instead of being kept in memory
+     */
+    protected class GraphDot {
+        private final Set<AbstractProject<?,?>> projects;
+        private final Set<Dependency> deps;
+        private final Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed;
+        private final String rootUrl;
+        private String digest;
+
+        /**
+         * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+         */
+        public GraphDot(Set<AbstractProject<?, ?>> projects, Set<Dependency> deps, String rootUrl) {
+            this(projects, deps, Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap(), rootUrl);
+        }
+
+        /**
+         * @param collapsed the projects of each summary node, by the project which represents it
+         * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+         */
+        public GraphDot(Set<AbstractProject<?, ?>> projects, Set<Dependency> deps,
+                        Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed, String rootUrl) {
+            this.projects = projects;
+            this.deps = deps;
+            this.collapsed = collapsed;
+            this.rootUrl = rootUrl;
+        }
+
+        public void writeTo(Writer writer) throws IOException {
+            generateDotText(projects, deps, collapsed, rootUrl, writer);
         }
 
+        public String getRootUrl() {
+            return rootUrl;
+        }
+
+        public Set<AbstractProject<?, ?>> getProjects() {
+            return projects;
+        }
+
+        public Set<Dependency> getDependencies() {
+            return deps;
+        }
+
+        public Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> getCollapsed() {
+            return collapsed;
+        }
+
+        /**
+         * @return digest of the UTF-8 encoded graphviz code, calculated without buffering the code
+         */
+        public String getDigest() throws IOException {
+            if (digest == null) {
+                MessageDigest md5;
+                try {
+                    md5 = MessageDigest.getInstance("MD5");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+                long start = System.nanoTime();
+                CountingOutputStream bytes = new CountingOutputStream(new NullStream());
+                Writer writer = new OutputStreamWriter(new DigestOutputStream(bytes, md5), UTF8);
+                writeTo(writer);
+                writer.close();
+                digest = Util.toHexString(md5.digest());
+                GraphStatistics statistics = GraphStatistics.get();
+                statistics.record(GraphStatistics.DOT_TEXT, (System.nanoTime() - start) / 1000);
+                statistics.record(GraphStatistics.DOT_BYTES, bytes.getByteCount());
+            }
+            return digest;
+        }
     }
 
     /**
@@ -107,13 +278,15 @@ public abstract class AbstractDependencyGraphAction implements Action {
             String extension = path.substring("/graph.".length());
             if (extension2Type.containsKey(extension.toLowerCase())) {
                 SupportedImageType imageType = extension2Type.get(extension.toLowerCase());
-                CalculateDeps calculateDeps = new CalculateDeps(getProjectsForDepgraph());
-                String graphDot = generateDotText(calculateDeps.getProjects(), calculateDeps.getDependencies());
-                rsp.setContentType(imageType.contentType);
-                if ("gv".equalsIgnoreCase(extension)) {
-                    rsp.getWriter().append(graphDot).close();
-                } else {
-                    runDot(rsp.getOutputStream(), new ByteArrayInputStream(graphDot.getBytes()), imageType.dotType);
+                long start = System.nanoTime();
+                boolean accepted = false;
+                try {
+                    accepted = serveGraph(req, rsp, extension, imageType);
+                } finally {
+                    // asking whether a render with async=true is done is no latency of a graph
+                    if (!accepted) {
+                        GraphStatistics.get().recordLatency(req.getRequestURI(), (System.nanoTime() - start) / 1000);
+                    }
                 }
             }
         } else {
@@ -123,75 +296,950 @@ public abstract class AbstractDependencyGraphAction implements Action {
     }
 
     /**
-     * Generates the graphviz code for the given projects and dependencies
+     * Writes the graph in the format of the extension, recording the stages in the {@link GraphStatistics}
+     * @return whether the request with async=true was answered by 202 since the graph is not ready yet
+     */
+    private boolean serveGraph(final StaplerRequest req, StaplerResponse rsp, final String extension,
+                               final SupportedImageType imageType) throws IOException {
+        GraphStatistics statistics = GraphStatistics.get();
+        statistics.increment(GraphStatistics.REQUESTS);
+        onGraphRequest(req);
+        final boolean gzip = imageType.compressible && acceptsGzip(req.getHeader("Accept-Encoding"));
+        if (imageType.compressible) {
+            rsp.setHeader("Vary", "Accept-Encoding");
+        }
+        String etag = getEtag(req, gzip);
+        if (matchesEtag(req.getHeader("If-None-Match"), etag)) {
+            statistics.increment(GraphStatistics.NOT_MODIFIED);
+            setEtag(rsp, etag);
+            rsp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        final int depth;
+        final CalculateDeps.Direction direction;
+        final int tile;
+        try {
+            depth = getDepth(req);
+            direction = getDirection(req);
+            tile = getTile(req);
+        } catch (IllegalArgumentException e) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return false;
+        }
+        final boolean reduce = Boolean.parseBoolean(req.getParameter("reduce"));
+        final boolean collapse = Boolean.parseBoolean(req.getParameter("collapse"));
+        final String rootUrl = Hudson.getInstance().getRootUrlFromRequest();
+        rsp.setContentType(imageType.contentType);
+        final boolean text = "gv".equalsIgnoreCase(extension) || "json".equalsIgnoreCase(extension);
+        final boolean json = "json".equalsIgnoreCase(extension);
+        boolean async = Boolean.parseBoolean(req.getParameter("async"));
+        if (text && !async) {
+            // streamed, so the memory of a request does not grow with the graph
+            GraphDot graphDot = calculateGraph(depth, direction, tile, reduce, collapse, rootUrl);
+            setEtag(rsp, etag);
+            OutputStream output = rsp.getOutputStream();
+            if (gzip) {
+                rsp.setHeader("Content-Encoding", "gzip");
+                output = new GZIPOutputStream(output);
+            }
+            writeText(graphDot, json, output);
+            return false;
+        }
+        Callable<RenderedGraph> computation = new Callable<RenderedGraph>() {
+            public RenderedGraph call() throws IOException {
+                GraphDot graphDot = calculateGraph(depth, direction, tile, reduce, collapse, rootUrl);
+                if (text) {
+                    // kept for the client until it asks again, so it is buffered
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    writeText(graphDot, json, gzip ? new GZIPOutputStream(bytes) : bytes);
+                    return new RenderedGraph(bytes.toByteArray(), null);
+                }
+                return render(graphDot, imageType.dotType, gzip);
+            }
+        };
+        RenderedGraph rendered;
+        FileInputStream stored;
+        try {
+            // the entity tag identifies the output including the user, so equal requests share one render
+            if (async) {
+                rendered = getAsyncResult(etag, computation);
+                if (rendered == null) {
+                    rsp.setHeader("Retry-After", String.valueOf(ASYNC_RETRY_AFTER_SECONDS));
+                    rsp.setStatus(HttpServletResponse.SC_ACCEPTED);
+                    return true;
+                }
+            } else {
+                rendered = renderFlights.execute(etag, computation);
+            }
+            stored = openStored(rendered);
+            if (rendered.storedKey != null && stored == null) {
+                // deleted from the disk since the render finished, so it is rendered again
+                rendered = renderFlights.execute(etag, computation);
+                stored = openStored(rendered);
+                if (rendered.storedKey != null && stored == null) {
+                    throw new IOException("The render " + rendered.storedKey + " was deleted from the disk");
+                }
+            }
+        } catch (RenderRejectedException e) {
+            statistics.increment(GraphStatistics.REJECTED);
+            LOGGER.info("Rejected render of " + req.getRequestURI() + ": " + e.getMessage());
+            rsp.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            rsp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return false;
+        } catch (RenderTimeoutException e) {
+            LOGGER.warning("Render of " + req.getRequestURI() + " timed out: " + e.getMessage());
+            rsp.setHeader("Retry-After", String.valueOf(RETRY_AFTER_SECONDS));
+            rsp.sendError(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            return false;
+        } catch (RenderFailedException e) {
+            LOGGER.warning("Render of " + req.getRequestURI() + " failed: " + e.getMessage());
+            rsp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, e.getMessage());
+            return false;
+        }
+        setEtag(rsp, etag);
+        if (gzip) {
+            rsp.setHeader("Content-Encoding", "gzip");
+        }
+        OutputStream output = rsp.getOutputStream();
+        try {
+            if (stored != null) {
+                rsp.setContentLength((int) stored.getChannel().size());
+                DiskRenderStore.transferTo(stored, output);
+            } else {
+                output.write(rendered.output);
+            }
+        } finally {
+            IOUtils.closeQuietly(stored);
+            output.close();
+        }
+        return false;
+    }
+
+    /**
+     * Writes the graph in the graphviz format or as json, which needs no dot, and closes the stream
+     */
+    private void writeText(GraphDot graphDot, boolean json, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, UTF8));
+        try {
+            if (json) {
+                generateJson(graphDot.getProjects(), graphDot.getDependencies(), graphDot.getCollapsed(),
+                        graphDot.getRootUrl(), writer);
+            } else {
+                graphDot.writeTo(writer);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Output of a render, either in memory or in a file of the {@link DiskRenderStore}
+     */
+    private static class RenderedGraph {
+        final byte[] output;
+        // key of the output in the DiskRenderStore, whose file may be evicted before it is sent
+        final String storedKey;
+
+        RenderedGraph(byte[] output, String storedKey) {
+            this.output = output;
+            this.storedKey = storedKey;
+        }
+    }
+
+    /**
+     * @return the opened file of an output on disk, null if the output is in memory or the file was evicted
+     */
+    private static FileInputStream openStored(RenderedGraph rendered) {
+        return rendered.storedKey == null ? null : DiskRenderStore.get().open(rendered.storedKey);
+    }
+
+    /**
+     * Starts the computation on the render executor as the current user if it is not running yet,
+     * sharing it with concurrent requests without async=true
+     * @param key identifies the result, so equal keys must lead to equal results
+     * @return the result of the computation or null if it is not finished yet
+     * @throws RenderRejectedException if {@link #MAX_ASYNC_RENDERS} renders are running or kept already
+     */
+    private static RenderedGraph getAsyncResult(final String key, final Callable<RenderedGraph> computation)
+            throws IOException {
+        AsyncRender running;
+        FutureTask<RenderedGraph> task = null;
+        synchronized (asyncRenders) {
+            pruneAsyncRenders();
+            running = asyncRenders.get(key);
+            if (running == null) {
+                if (asyncRenders.size() >= MAX_ASYNC_RENDERS) {
+                    throw new RenderRejectedException(asyncRenders.size() + " renders are running or kept for clients");
+                }
+                final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                task = new FutureTask<RenderedGraph>(new Callable<RenderedGraph>() {
+                    public RenderedGraph call() throws Exception {
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        try {
+                            return renderFlights.execute(key, computation);
+                        } finally {
+                            SecurityContextHolder.clearContext();
+                        }
+                    }
+                });
+                running = new AsyncRender(task);
+                asyncRenders.put(key, running);
+            }
+        }
+        if (task != null) {
+            renderExecutor.execute(task);
+            return null;
+        }
+        if (!running.result.isDone()) {
+            return null;
+        }
+        try {
+            return running.result.get();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("A finished render cannot be interrupted", e);
+        } catch (ExecutionException e) {
+            // a failed render is tried again on the next request
+            synchronized (asyncRenders) {
+                if (asyncRenders.get(key) == running) {
+                    asyncRenders.remove(key);
+                }
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException2(cause);
+        }
+    }
+
+    /**
+     * Drops the finished renders which were not fetched in time, and the oldest finished renders
+     * while more than {@link #MAX_ASYNC_RENDERS} renders or {@link #MAX_ASYNC_BYTES} are kept,
+     * since their results are held outside of the {@link RenderCache}
+     */
+    private static void pruneAsyncRenders() {
+        long now = System.currentTimeMillis();
+        long bytes = 0;
+        for (Iterator<AsyncRender> it = asyncRenders.values().iterator(); it.hasNext(); ) {
+            AsyncRender render = it.next();
+            if (render.result.isDone() && now - render.started > ASYNC_RESULT_MILLIS) {
+                it.remove();
+            } else {
+                bytes += render.getSize();
+            }
+        }
+        for (Iterator<AsyncRender> it = asyncRenders.values().iterator();
+             it.hasNext() && (asyncRenders.size() >= MAX_ASYNC_RENDERS || bytes > MAX_ASYNC_BYTES); ) {
+            AsyncRender render = it.next();
+            if (render.result.isDone()) {
+                bytes -= render.getSize();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Render started by a request with async=true, which is kept for a while after it is finished,
+     * so the following requests of the client get its result
+     */
+    private static class AsyncRender {
+        final Future<RenderedGraph> result;
+        final long started = System.currentTimeMillis();
+
+        AsyncRender(Future<RenderedGraph> result) {
+            this.result = result;
+        }
+
+        /**
+         * @return the bytes of the result held in memory, 0 while it is running or if it failed
+         */
+        long getSize() {
+            if (!result.isDone()) {
+                return 0;
+            }
+            try {
+                RenderedGraph rendered = result.get();
+                return rendered.output == null ? 0 : rendered.output.length;
+            } catch (InterruptedException e) {
+                return 0;
+            } catch (ExecutionException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Calculates the graph, recording the stages in the {@link GraphStatistics}
+     * @param tile the index of the tile of {@link #getTiles()} to calculate, negative for the whole graph
+     * @param reduce remove the dependencies which are implied by other paths
+     * @param collapse replace the projects of each cycle by one summary node
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     */
+    private GraphDot calculateGraph(int depth, CalculateDeps.Direction direction, int tile, boolean reduce,
+                                    boolean collapse, String rootUrl) {
+        GraphStatistics statistics = GraphStatistics.get();
+        long traversalStart = System.nanoTime();
+        Collection<? extends AbstractProject<?,?>> projects = getProjectsForDepgraph();
+        if (tile >= 0) {
+            GraphTiles.GraphTile graphTile = getTiles().getTile(tile);
+            projects = graphTile != null ? graphTile.getRepresentatives()
+                    : Collections.<AbstractProject<?,?>>emptyList();
+        }
+        CalculateDeps calculateDeps = new CalculateDeps(projects, depth, direction);
+        calculateDeps.calculateNodesAndDependencies();
+        statistics.record(GraphStatistics.TRAVERSAL, (System.nanoTime() - traversalStart) / 1000);
+        statistics.record(GraphStatistics.NODES, calculateDeps.getProjects().size());
+        statistics.record(GraphStatistics.EDGES, calculateDeps.getDependencies().size());
+        if (reduce || collapse) {
+            GraphSimplifier simplifier = new GraphSimplifier(calculateDeps.getProjects(),
+                    calculateDeps.getDependencies(), reduce, collapse);
+            return new GraphDot(simplifier.getProjects(), simplifier.getDependencies(),
+                    simplifier.getCollapsed(), rootUrl);
+        }
+        return new GraphDot(calculateDeps.getProjects(), calculateDeps.getDependencies(), rootUrl);
+    }
+
+    /**
+     * Renders the graph, sending outputs which are only on disk without reading them
+     */
+    private RenderedGraph render(GraphDot graphDot, String type, boolean gzip) throws IOException {
+        String key = renderKey(graphDot, type, gzip);
+        if (!RenderCache.get().contains(key) && DiskRenderStore.get().find(key) != null) {
+            // rendered before a restart or evicted from memory
+            return new RenderedGraph(null, key);
+        }
+        return new RenderedGraph(renderCached(graphDot, type, gzip), null);
+    }
+
+    /**
+     * Changes of the graph since the version given by the since parameter, as json.
+     * Answers "unchanged" without calculating the graph as long as neither the dependency
+     * graph nor the projects or permissions changed. Writes the whole graph if the client
+     * holds no version or a version which is not kept anymore.
+     * See {@link GraphHistory.GraphState} for the format.
+     */
+    public void doDelta(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        int depth;
+        CalculateDeps.Direction direction;
+        try {
+            depth = getDepth(req);
+            direction = getDirection(req);
+        } catch (IllegalArgumentException e) {
+            rsp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        String rootUrl = Hudson.getInstance().getRootUrlFromRequest();
+        String key = req.getRequestURI() + ':' + Hudson.getAuthentication().getName() + ':' + rootUrl + ':'
+                + depth + ':' + direction;
+        String sourceVersion = DependencyGraphIndex.getVersion() + ":" + VisibilityCache.getEpoch();
+        GraphHistory history = GraphHistory.get();
+        GraphHistory.GraphState current = history.getLatest(key, sourceVersion);
+        if (current == null) {
+            CalculateDeps calculateDeps = new CalculateDeps(getProjectsForDepgraph(), depth, direction);
+            current = history.add(key, new GraphHistory.GraphState(calculateDeps.getProjects(),
+                    calculateDeps.getDependencies(), rootUrl), sourceVersion);
+        }
+        String since = Util.fixEmptyAndTrim(req.getParameter("since"));
+        GraphHistory.GraphState older = since == null ? null : history.find(key, since);
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.setHeader("Cache-Control", "private, no-cache");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(rsp.getOutputStream(), UTF8));
+        try {
+            if (current.getVersion().equals(since)) {
+                current.writeUnchanged(writer);
+            } else if (older != null) {
+                current.writeDelta(writer, older);
+            } else {
+                current.writeFull(writer);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Called for each request of a graph, before anything is calculated
+     */
+    protected void onGraphRequest(StaplerRequest req) {
+    }
+
+    /**
+     * Renders the image and the image map of the whole graph into the render cache
+     * for later requests, with the permissions of the current user
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     */
+    public void prerender(String rootUrl) throws IOException {
+        CalculateDeps calculateDeps = new CalculateDeps(getProjectsForDepgraph());
+        renderCached(new GraphDot(calculateDeps.getProjects(), calculateDeps.getDependencies(), rootUrl),
+                extension2Type.get("png").dotType);
+    }
+
+    /**
+     * @return the maximum distance from the projects of the depgraph given by the depth parameter
+     * @throws IllegalArgumentException if the parameter is not a non-negative integer
+     */
+    private static int getDepth(StaplerRequest req) {
+        String depth = Util.fixEmptyAndTrim(req.getParameter("depth"));
+        if (depth == null) {
+            return CalculateDeps.UNLIMITED_DEPTH;
+        }
+        try {
+            int value = Integer.parseInt(depth);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("depth must be a non-negative integer: " + depth);
+    }
+
+    /**
+     * @return the index of the tile given by the tile parameter, -1 for the whole graph
+     * @throws IllegalArgumentException if the parameter is not a non-negative integer
+     */
+    private static int getTile(StaplerRequest req) {
+        String tile = Util.fixEmptyAndTrim(req.getParameter("tile"));
+        if (tile == null) {
+            return -1;
+        }
+        try {
+            int value = Integer.parseInt(tile);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("tile must be a non-negative integer: " + tile);
+    }
+
+    /**
+     * @return the direction given by the direction parameter (upstream, downstream or both)
+     * @throws IllegalArgumentException if the parameter is not a direction
+     */
+    private static CalculateDeps.Direction getDirection(StaplerRequest req) {
+        String direction = Util.fixEmptyAndTrim(req.getParameter("direction"));
+        if (direction == null) {
+            return CalculateDeps.Direction.BOTH;
+        }
+        try {
+            return CalculateDeps.Direction.valueOf(direction.toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("direction must be upstream, downstream or both: " + direction);
+        }
+    }
+
+    /**
+     * The graph only changes when the dependency graph of Hudson is rebuilt or
+     * when the projects, permissions or the configuration of the plugin change.
+     * Entity tags of earlier runs of Hudson or versions of the plugin never match.
+     * @param gzip whether the output is gzip compressed, which makes it a different entity
+     * @return strong entity tag for the requested output
+     */
+    private String getEtag(StaplerRequest req, boolean gzip) {
+        StringBuilder version = new StringBuilder()
+                .append(ETAG_NONCE).append(':')
+                .append(getPluginVersion()).append(':')
+                .append(DependencyGraphIndex.getVersion()).append(':')
+                .append(VisibilityCache.getEpoch()).append(':')
+                .append(Hudson.getAuthentication().getName()).append(':')
+                .append(Hudson.getInstance().getRootUrlFromRequest()).append(':')
+                .append(req.getRequestURI());
+        String query = getCanonicalQuery(req.getQueryString());
+        if (query.length() > 0) {
+            version.append('?').append(query);
+        }
+        if (gzip) {
+            version.append(":gzip");
+        }
+        return "\"" + Util.getDigestOf(version.toString()) + "\"";
+    }
+
+    /**
+     * The output is the same with and without async=true and for any order of the parameters,
+     * so requests differing only in these share the entity tag and the render
+     * @return the parameters of the query without async, sorted, empty if none are left
+     */
+    static String getCanonicalQuery(String queryString) {
+        if (queryString == null) {
+            return "";
+        }
+        List<String> parameters = new ArrayList<String>();
+        for (String parameter : queryString.split("&")) {
+            if (parameter.length() > 0 && !parameter.equals("async") && !parameter.startsWith("async=")) {
+                parameters.add(parameter);
+            }
+        }
+        Collections.sort(parameters);
+        StringBuilder query = new StringBuilder();
+        for (String parameter : parameters) {
+            if (query.length() > 0) {
+                query.append('&');
+            }
+            query.append(parameter);
+        }
+        return query.toString();
+    }
+
+    /**
+     * @return the version of this plugin, empty if it is not known
+     */
+    private static String getPluginVersion() {
+        PluginWrapper plugin = Hudson.getInstance().getPluginManager().getPlugin("depgraph-view");
+        return plugin == null ? "" : plugin.getVersion();
+    }
+
+    private static void setEtag(StaplerResponse rsp, String etag) {
+        rsp.setHeader("ETag", etag);
+        // the graph depends on the permissions of the user, so only the browser may keep it
+        rsp.setHeader("Cache-Control", "private, no-cache");
+    }
+
+    /**
+     * @param acceptEncoding value of the Accept-Encoding header
+     * @return whether the header allows gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip") || name.equals("*")) {
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            refused = Double.parseDouble(parameter.substring(2)) == 0;
+                        } catch (NumberFormatException e) {
+                            refused = true;
+                        }
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param ifNoneMatch value of the If-None-Match header
+     * @return whether the header contains the entity tag
+     */
+    static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals(etag) || trimmed.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the graphviz code for the given projects and dependencies
      * @param projects the nodes of the graph
      * @param deps the edges of the graph
-     * @return graphviz code
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     * @param writer receives the graphviz code
      */
-    public String generateDotText(Set<AbstractProject<?,?>> projects, Set<Dependency> deps) {
-        List<Dependency> sortedDeps = new ArrayList<Dependency>(deps);
-        Collections.sort(sortedDeps, DEP_COMPARATOR);
+    public void generateDotText(Set<AbstractProject<?,?>> projects, Set<Dependency> deps, String rootUrl, Writer writer)
+            throws IOException {
+        generateDotText(projects, deps, Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap(),
+                rootUrl, writer);
+    }
 
-        List<AbstractProject<?, ?>> depProjects = new ArrayList<AbstractProject<?, ?>>();
-        for (Dependency dependency : sortedDeps) {
-            depProjects.add(dependency.getUpstreamProject());
-            depProjects.add(dependency.getDownstreamProject());
+    /**
+     * Writes the graphviz code for the given projects and dependencies
+     * @param projects the nodes of the graph
+     * @param deps the edges of the graph
+     * @param collapsed the projects of each summary node, by the project which represents it
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     * @param writer receives the graphviz code
+     */
+    public void generateDotText(Set<AbstractProject<?,?>> projects, Set<Dependency> deps,
+                                Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed, String rootUrl,
+                                Writer writer) throws IOException {
+        // projects in the order of their names, which also gives the ids of the nodes
+        List<AbstractProject<?, ?>> sortedProjects = new ArrayList<AbstractProject<?, ?>>(projects);
+        Collections.sort(sortedProjects, PROJECT_COMPARATOR);
+        Map<AbstractProject<?, ?>, Integer> ids = new HashMap<AbstractProject<?, ?>, Integer>(sortedProjects.size() * 2);
+        for (int id = 0; id < sortedProjects.size(); id++) {
+            ids.put(sortedProjects.get(id), id);
         }
 
+        // edges as downstream id in the upper and upstream id in the lower half, so sorting
+        // orders them by downstream and then upstream project
+        long[] edges = new long[deps.size()];
+        boolean[] connected = new boolean[sortedProjects.size()];
+        int edgeCount = 0;
+        for (Dependency dep : deps) {
+            Integer upstream = ids.get(dep.getUpstreamProject());
+            Integer downstream = ids.get(dep.getDownstreamProject());
+            if (upstream != null && downstream != null) {
+                edges[edgeCount++] = ((long) downstream << 32) | upstream;
+                connected[upstream] = true;
+                connected[downstream] = true;
+            }
+        }
+        Arrays.sort(edges, 0, edgeCount);
+
+        writer.append("digraph {\n");
+        writer.append("node [shape=box, style=rounded];\n");
+        writer.append("subgraph clusterdepgraph {\n");
+        // projects without dependencies first
+        for (int id = 0; id < sortedProjects.size(); id++) {
+            if (!connected[id]) {
+                writeNode(writer, id, sortedProjects.get(id), collapsed.get(sortedProjects.get(id)), rootUrl);
+            }
+        }
+        for (int id = 0; id < sortedProjects.size(); id++) {
+            if (connected[id]) {
+                writeNode(writer, id, sortedProjects.get(id), collapsed.get(sortedProjects.get(id)), rootUrl);
+            }
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            if (i > 0 && edges[i] == edges[i - 1]) {
+                continue;
+            }
+            writer.append('n').append(String.valueOf((int) edges[i]))
+                    .append(" -> n").append(String.valueOf((int) (edges[i] >>> 32))).append(";\n");
+        }
+
+        writer.append("color=white;\n}\n");
+        writer.append("}");
+    }
+
+    /**
+     * Writes the given projects and dependencies as json for rendering the graph in the browser:
+     * {"nodes":[{"id":0,"name":"a","url":"..."},...],"edges":[[0,1],...]},
+     * where the ids of the nodes are their index in the list of nodes
+     * @param projects the nodes of the graph
+     * @param deps the edges of the graph
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     * @param writer receives the json
+     */
+    public void generateJson(Set<AbstractProject<?,?>> projects, Set<Dependency> deps, String rootUrl, Writer writer)
+            throws IOException {
+        generateJson(projects, deps, Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap(),
+                rootUrl, writer);
+    }
+
+    /**
+     * Writes the graph as json like {@link #generateJson(Set, Set, String, Writer)}.
+     * Summary nodes have the names of all their projects as "members":["a","b",...].
+     * @param collapsed the projects of each summary node, by the project which represents it
+     */
+    public void generateJson(Set<AbstractProject<?,?>> projects, Set<Dependency> deps,
+                             Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed, String rootUrl,
+                             Writer writer) throws IOException {
         List<AbstractProject<?, ?>> sortedProjects = new ArrayList<AbstractProject<?, ?>>(projects);
-        sortedProjects.removeAll(depProjects);
         Collections.sort(sortedProjects, PROJECT_COMPARATOR);
-        Collections.sort(depProjects, PROJECT_COMPARATOR);
-        sortedProjects.addAll(depProjects);
+        Map<AbstractProject<?,?>, Integer> ids = new HashMap<AbstractProject<?, ?>, Integer>();
+        writer.append("{\"nodes\":[");
+        for (int id = 0; id < sortedProjects.size(); id++) {
+            AbstractProject<?,?> proj = sortedProjects.get(id);
+            ids.put(proj, id);
+            writer.append(id == 0 ? "" : ",").append("\n{\"id\":").append(String.valueOf(id))
+                    .append(",\"name\":").append(escapeJson(proj.getName()))
+                    .append(",\"url\":").append(escapeJson(rootUrl + proj.getUrl()));
+            List<AbstractProject<?,?>> members = collapsed.get(proj);
+            if (members != null) {
+                writer.append(",\"members\":[");
+                for (int i = 0; i < members.size(); i++) {
+                    writer.append(i == 0 ? "" : ",").append(escapeJson(members.get(i).getName()));
+                }
+                writer.append(']');
+            }
+            writer.append('}');
+        }
+        writer.append("],\n\"edges\":[");
+        boolean first = true;
+        for (Dependency dep : deps) {
+            Integer from = ids.get(dep.getUpstreamProject());
+            Integer to = ids.get(dep.getDownstreamProject());
+            if (from != null && to != null) {
+                writer.append(first ? "" : ",").append('[').append(String.valueOf(from)).append(',')
+                        .append(String.valueOf(to)).append(']');
+                first = false;
+            }
+        }
+        writer.append("]}");
+    }
 
-        StringBuilder builder = new StringBuilder("digraph {\n");
-        builder.append("node [shape=box, style=rounded];\n");
-        builder.append("subgraph clusterdepgraph {\n");
-        for (AbstractProject<?, ?> proj:sortedProjects) {
-            builder.append(projectToNodeString(proj)).append(";\n");
+    static String escapeJson(String toEscape) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < toEscape.length(); i++) {
+            char c = toEscape.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                // the line separators are valid in json strings, but not in javascript strings
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
         }
+        return builder.append('"').toString();
+    }
 
-        for (Dependency dep : sortedDeps) {
-            builder.append(dependencyToEdgeString(dep));
-            builder.append(";\n");
+    /**
+     * Writes the node with its numeric id, the name of the project as label and the url of the project.
+     * Summary nodes are labeled with the names of all their projects.
+     */
+    private static void writeNode(Writer writer, int id, AbstractProject<?, ?> proj, List<AbstractProject<?, ?>> members,
+                                  String rootUrl) throws IOException {
+        writer.append('n').append(String.valueOf(id)).append(" [label=\"");
+        if (members == null) {
+            writeEscaped(writer, proj.getName());
+        } else {
+            for (int i = 0; i < members.size(); i++) {
+                if (i > 0) {
+                    writer.append("\\n");
+                }
+                writeEscaped(writer, members.get(i).getName());
+            }
         }
+        writer.append("\", href=\"");
+        writeEscaped(writer, rootUrl);
+        writeEscaped(writer, proj.getUrl());
+        writer.append(members == null ? "\"];\n" : "\", peripheries=2];\n");
+    }
 
-        builder.append("color=white;\n}\n");
-        return builder.append("}").toString();
+    /**
+     * Writes the string for a quoted graphviz string
+     */
+    private static void writeEscaped(Writer writer, String toEscape) throws IOException {
+        for (int i = 0; i < toEscape.length(); i++) {
+            char c = toEscape.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.append('\\');
+            }
+            writer.append(c);
+        }
     }
 
-    private String projectToNodeString(AbstractProject<?, ?> proj) {
-        return escapeString(proj.getName()) +
-                " [href=" +
-                escapeString(Hudson.getInstance().getRootUrlFromRequest() + proj.getUrl()) + "]";
+    /**
+     * Renders the graphviz code, reusing the output of an earlier
+     * run of dot for the same code and type if it is still cached
+     * @param type the parameter for the -T option of the graphviz tools
+     * @return the output of dot
+     * @throws RenderFailedException if dot failed or was killed, nothing is cached then
+     */
+    protected byte[] renderCached(final GraphDot graphDot, final String type) throws IOException {
+        if (isJavaRendered(graphDot, type)) {
+            return renderJavaCached(graphDot, type);
+        }
+        final String key = RenderCache.keyOf(graphDot.getDigest(), type);
+        byte[] output = lookup(key);
+        if (output == null) {
+            Map<String, byte[]> outputs = outputFlights.execute(flightKey(graphDot, "", type),
+                    new Callable<Map<String, byte[]>>() {
+                public Map<String, byte[]> call() throws IOException {
+                    // a flight which finished in the meantime already stored the output
+                    byte[] stored = lookup(key);
+                    return stored != null ? Collections.singletonMap(type, stored) : renderDot(graphDot, type);
+                }
+            });
+            output = outputs.get(type);
+            if (output == null) {
+                // the flight of the companion did not render this output, since it was stored already
+                output = lookup(key);
+            }
+            if (output == null) {
+                // and it was evicted right away
+                output = renderDot(graphDot, type).get(type);
+            }
+        }
+        return output;
     }
 
-    private String dependencyToEdgeString(Dependency dep) {
-        return escapeString(dep.getUpstreamProject().getName()) + " -> " +
-                escapeString(dep.getDownstreamProject().getName());
+    /**
+     * An output and its companion are rendered together, so the requests of both share a flight.
+     * The digest of the graphviz code is part of the key, so requests of all users for the same
+     * code share it.
+     * @param prefix distinguishes the renderers
+     * @return key of the flight which renders the output of the type
+     */
+    private static String flightKey(GraphDot graphDot, String prefix, String type) throws IOException {
+        String companionType = companionTypes.get(type);
+        String types = companionType == null ? type
+                : (type.compareTo(companionType) < 0 ? type + '+' + companionType : companionType + '+' + type);
+        return graphDot.getDigest() + ':' + prefix + types;
     }
 
-    private String escapeString(String toEscape) {
-        return "\"" + toEscape + "\"";
+    /**
+     * Runs dot for the type and, unless it is stored already, its companion type and stores the outputs
+     * @return the rendered outputs by type
+     */
+    private Map<String, byte[]> renderDot(GraphDot graphDot, String type) throws IOException {
+        String companionType = companionTypes.get(type);
+        if (companionType == null || isStored(RenderCache.keyOf(graphDot.getDigest(), companionType))) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            runDot(buffer, graphDot, type);
+            byte[] output = buffer.toByteArray();
+            store(RenderCache.keyOf(graphDot.getDigest(), type), output);
+            return Collections.singletonMap(type, output);
+        }
+        Map<String, byte[]> outputs = runDot(graphDot, type, companionType);
+        for (Map.Entry<String, byte[]> entry : outputs.entrySet()) {
+            store(RenderCache.keyOf(graphDot.getDigest(), entry.getKey()), entry.getValue());
+        }
+        return outputs;
     }
 
     /**
-     * Execute the dot commando with given input and output stream
+     * Renders the graphviz code like {@link #renderCached(GraphDot, String)}, optionally
+     * gzip compressed. The compressed output is cached next to the raw one, so
+     * it is only compressed once for each render.
      * @param type the parameter for the -T option of the graphviz tools
+     * @param gzip whether to return the output gzip compressed
+     * @return the output of dot
+     * @throws RenderFailedException if dot failed or was killed, nothing is cached then
      */
-    protected void runDot(OutputStream output, InputStream input, String type)
-            throws IOException {
+    protected byte[] renderCached(GraphDot graphDot, String type, boolean gzip) throws IOException {
+        byte[] output = renderCached(graphDot, type);
+        if (!gzip) {
+            return output;
+        }
+        String key = renderKey(graphDot, type, true);
+        byte[] compressed = lookup(key);
+        if (compressed == null) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(output.length / 4);
+            GZIPOutputStream gzipOutput = new GZIPOutputStream(buffer);
+            gzipOutput.write(output);
+            gzipOutput.close();
+            compressed = buffer.toByteArray();
+            store(key, compressed);
+        }
+        return compressed;
+    }
+
+    /**
+     * @param gzip whether the key is for the gzip compressed output
+     * @return key of the output in the {@link RenderCache} and the {@link DiskRenderStore}
+     */
+    private String renderKey(GraphDot graphDot, String type, boolean gzip) throws IOException {
+        return RenderCache.keyOf(graphDot.getDigest(),
+                (isJavaRendered(graphDot, type) ? JAVA_RENDERER_PREFIX : "") + type + (gzip ? GZIP_SUFFIX : ""));
+    }
+
+    /**
+     * Looks the output up in memory first and then on disk, keeping outputs from disk in memory
+     * @return the stored output or null if there is none
+     */
+    private static byte[] lookup(String key) {
+        RenderCache cache = RenderCache.get();
+        byte[] output = cache.get(key);
+        if (output == null) {
+            output = DiskRenderStore.get().read(key);
+            if (output != null) {
+                cache.put(key, output);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @return whether an output is stored in memory or on disk for the key
+     */
+    private static boolean isStored(String key) {
+        return RenderCache.get().contains(key) || DiskRenderStore.get().find(key) != null;
+    }
+
+    /**
+     * Keeps the output in memory and on disk
+     */
+    private static void store(String key, byte[] output) {
+        RenderCache.get().put(key, output);
+        DiskRenderStore.get().store(key, output);
+    }
+
+    /**
+     * @return whether the {@link JavaGraphRenderer} is configured to render the graph instead of dot
+     */
+    private boolean isJavaRendered(GraphDot graphDot, String type) {
         DescriptorImpl descriptor = Hudson.getInstance().getDescriptorByType(DependencyGraphProperty.DescriptorImpl.class);
-        String dotPath = descriptor.getDotExeOrDefault();
-        Launcher launcher = Hudson.getInstance().createLauncher(new LogTaskListener(LOGGER, Level.CONFIG));
+        return descriptor.isUseJavaRenderer() && JavaGraphRenderer.supports(type)
+                && graphDot.getProjects().size() <= descriptor.getJavaRendererMaxNodesOrDefault();
+    }
+
+    /**
+     * Renders the graph with the {@link JavaGraphRenderer}, together with its companion type,
+     * reusing earlier outputs for the same graph if they are still cached
+     * @param type the parameter for the -T option of the graphviz tools
+     * @return the rendered graph
+     */
+    private byte[] renderJavaCached(final GraphDot graphDot, final String type) throws IOException {
+        final String key = RenderCache.keyOf(graphDot.getDigest(), JAVA_RENDERER_PREFIX + type);
+        byte[] output = lookup(key);
+        if (output == null) {
+            Map<String, byte[]> outputs = outputFlights.execute(flightKey(graphDot, JAVA_RENDERER_PREFIX, type),
+                    new Callable<Map<String, byte[]>>() {
+                public Map<String, byte[]> call() throws IOException {
+                    // a flight which finished in the meantime already stored the output
+                    byte[] stored = lookup(key);
+                    return stored != null ? Collections.singletonMap(type, stored) : renderJava(graphDot, type);
+                }
+            });
+            output = outputs.get(type);
+            if (output == null) {
+                // the flight of the companion did not render this output, since it was stored already
+                output = lookup(key);
+            }
+            if (output == null) {
+                // and it was evicted right away
+                output = renderJava(graphDot, type).get(type);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Renders the type and its companion type with the {@link JavaGraphRenderer} and stores the outputs.
+     * The layout takes a slot of the {@link RenderScheduler} like dot, so a burst of requests
+     * does not lay out an unbounded number of graphs in parallel.
+     * @return the rendered outputs by type
+     */
+    private Map<String, byte[]> renderJava(GraphDot graphDot, String type) throws IOException {
+        Map<String, byte[]> outputs = new HashMap<String, byte[]>();
+        acquireRenderSlot(Hudson.getInstance().getDescriptorByType(DependencyGraphProperty.DescriptorImpl.class));
         try {
-            launcher.launch()
-                    .cmds(dotPath,"-T" + type)
-                    .stdin(input)
-                    .stdout(output).start().join();
-        } catch (InterruptedException e) {
-            LOGGER.severe("Interrupted while waiting for dot-file to be created:" + e);
-            e.printStackTrace();
+            JavaGraphRenderer renderer = new JavaGraphRenderer(graphDot.getProjects(), graphDot.getDependencies(),
+                    graphDot.getCollapsed(), graphDot.getRootUrl());
+            outputs.put(type, renderer.render(type));
+            String companionType = companionTypes.get(type);
+            if (companionType != null) {
+                outputs.put(companionType, renderer.render(companionType));
+            }
+        } finally {
+            RenderScheduler.get().release();
+        }
+        for (Map.Entry<String, byte[]> entry : outputs.entrySet()) {
+            store(RenderCache.keyOf(graphDot.getDigest(), JAVA_RENDERER_PREFIX + entry.getKey()), entry.getValue());
+        }
+        return outputs;
+    }
+
+    /**
+     * Execute the dot commando with the graphviz code as input and the given output stream
+     * @param type the parameter for the -T option of the graphviz tools
+     */
+    protected void runDot(OutputStream output, GraphDot graphDot, String type)
+            throws IOException {
+        try {
+            runDot(graphDot, output, "-T" + type);
         }
         finally {
             if (output != null) {
@@ -200,6 +1248,152 @@ public abstract class AbstractDependencyGraphAction implements Action {
         }
     }
 
+    /**
+     * Execute the dot commando once, creating an output for each of the given types
+     * @param types the parameters for the -T option of the graphviz tools
+     * @return the outputs of dot by type
+     * @throws RenderFailedException if dot failed, was killed or did not create an output
+     */
+    protected Map<String, byte[]> runDot(GraphDot graphDot, String... types)
+            throws IOException {
+        File outputDir = Util.createTempDir();
+        try {
+            List<String> args = new ArrayList<String>();
+            for (String type : types) {
+                // each -o applies to the -T before it
+                args.add("-T" + type);
+                args.add("-o" + new File(outputDir, "graph." + type).getAbsolutePath());
+            }
+            runDot(graphDot, new NullStream(), args.toArray(new String[args.size()]));
+            Map<String, byte[]> outputs = new HashMap<String, byte[]>();
+            for (String type : types) {
+                File outputFile = new File(outputDir, "graph." + type);
+                if (!outputFile.exists()) {
+                    throw new RenderFailedException("dot did not create the " + type + " output");
+                }
+                outputs.put(type, FileUtils.readFileToByteArray(outputFile));
+            }
+            return outputs;
+        }
+        finally {
+            Util.deleteRecursive(outputDir);
+        }
+    }
+
+    /**
+     * Waits for a slot of the {@link RenderScheduler}, which has to be given back by
+     * {@link RenderScheduler#release()}
+     * @throws RenderRejectedException if too many renders are waiting already
+     */
+    private static void acquireRenderSlot(DescriptorImpl descriptor) throws IOException {
+        long queueStart = System.nanoTime();
+        try {
+            RenderScheduler.get().acquire(descriptor.getMaxConcurrentRendersOrDefault(),
+                    descriptor.getMaxQueuedRendersOrDefault(), descriptor.getRenderTimeoutOrDefault() * 1000L);
+        } catch (InterruptedException e) {
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting to render");
+            interrupted.initCause(e);
+            throw interrupted;
+        } finally {
+            GraphStatistics.get().record(GraphStatistics.QUEUE_WAIT, (System.nanoTime() - queueStart) / 1000);
+        }
+    }
+
+    /**
+     * Starts dot with the given arguments and writes the graphviz code
+     * to its standard input through a pipe while dot is running.
+     * Waits for a slot of the {@link RenderScheduler} first and kills dot
+     * if it exceeds the configured render timeout.
+     * @throws RenderTimeoutException if dot was killed, so the output is incomplete
+     * @throws RenderFailedException if dot exited with an error
+     */
+    private void runDot(GraphDot graphDot, OutputStream output, String... args) throws IOException {
+        DescriptorImpl descriptor = Hudson.getInstance().getDescriptorByType(DependencyGraphProperty.DescriptorImpl.class);
+        String dotPath = descriptor.getDotExeOrDefault();
+        long timeoutMillis = descriptor.getRenderTimeoutOrDefault() * 1000L;
+        RenderScheduler scheduler = RenderScheduler.get();
+        GraphStatistics statistics = GraphStatistics.get();
+        acquireRenderSlot(descriptor);
+        try {
+            Launcher launcher = Hudson.getInstance().createLauncher(new LogTaskListener(LOGGER, Level.CONFIG));
+            List<String> cmds = new ArrayList<String>();
+            cmds.add(dotPath);
+            cmds.addAll(Arrays.asList(args));
+            PipedOutputStream dotInput = new PipedOutputStream();
+            long dotStart = System.nanoTime();
+            Proc proc = launcher.launch()
+                    .cmds(cmds)
+                    .stdin(new PipedInputStream(dotInput, PIPE_SIZE))
+                    .stdout(output).start();
+            RenderScheduler.Kill kill = scheduler.killAfter(proc, timeoutMillis);
+            try {
+                try {
+                    Writer writer = new BufferedWriter(new OutputStreamWriter(dotInput, UTF8));
+                    try {
+                        graphDot.writeTo(writer);
+                    } finally {
+                        writer.close();
+                    }
+                } catch (IOException e) {
+                    LOGGER.warning("dot stopped reading the graph:" + e);
+                }
+                int status = proc.join();
+                statistics.record(GraphStatistics.DOT, (System.nanoTime() - dotStart) / 1000);
+                statistics.increment(GraphStatistics.DOT_EXIT + status);
+                if (kill.isKilled()) {
+                    statistics.increment(GraphStatistics.TIMED_OUT);
+                    throw new RenderTimeoutException("dot was killed after " + timeoutMillis + "ms");
+                }
+                if (status != 0) {
+                    throw new RenderFailedException("dot exited with status " + status);
+                }
+            } catch (InterruptedException e) {
+                // dot must not keep running without the render waiting for it
+                kill.run();
+                InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for dot");
+                interrupted.initCause(e);
+                throw interrupted;
+            } finally {
+                kill.cancel();
+            }
+        } finally {
+            scheduler.release();
+        }
+    }
+
+    /**
+     * @return whether the graph may consist of several connected components, which are then offered
+     * as tiles rendered one by one
+     */
+    public boolean isSplittable() {
+        return false;
+    }
+
+    /**
+     * Splits the whole graph into its connected components, the largest first, packed into tiles.
+     * The tiles are requested independently, so they are laid out in parallel and a change of
+     * one component only renders that component again. The tiles are calculated once for each
+     * version of the graph and of the permissions.
+     */
+    public GraphTiles getTiles() {
+        DependencyGraphIndex index = DependencyGraphIndex.get();
+        String key = getParentObject().getSearchUrl() + ':' + Hudson.getAuthentication().getName() + ':'
+                + DependencyGraphIndex.getVersion() + ':' + VisibilityCache.getEpoch();
+        GraphTiles tiles = GraphTiles.getCached(key);
+        if (tiles == null) {
+            tiles = new GraphTiles(getProjectsForDepgraph(), index, VisibilityCache.forCurrentUser(index));
+            GraphTiles.putCached(key, tiles);
+        }
+        return tiles;
+    }
+
+    /**
+     * @return the tiles of the page given by the page parameter
+     */
+    public GraphTiles.TilePage getTilePage(StaplerRequest req) {
+        return getTiles().getPage(req.getParameter("page"));
+    }
+
     /**
      * @return projects for which the dependency graph should be calculated
      */
@@ -20,14 +20,13 @@
  * THE SOFTWARE.
  */
 
+
 package hudson.plugins.depgraph_view;
 
 import hudson.model.AbstractProject;
-import hudson.model.DependencyGraph;
 import hudson.model.DependencyGraph.Dependency;
-import hudson.model.Hudson;
-import hudson.model.Item;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -39,57 +38,178 @@ import java.util.logging.Logger;
  * dependency graph containing a set of projects.
  * After calculation one can obtain the set of dependencies and
  * the set of projects of the connected components.
- * Respects read permission of the projects.
+ * Respects read permission of the projects, which is looked up in the
+ * {@link VisibilityCache} of the current user. Components where every
+ * project is readable are taken from the {@link DependencyGraphIndex},
+ * the others are traversed on the adjacency arrays of the index.
+ * The traversal can be restricted to a direction and to a maximum
+ * distance from the given projects.
  *
  * @author wolfs
  */
 public class CalculateDeps {
     private static final Logger LOGGER = Logger.getLogger(CalculateDeps.class.getName());
+    /**
+     * Maximum depth for calculating the whole connected components
+     */
+    public static final int UNLIMITED_DEPTH = -1;
     private final Set<Dependency> visitedDeps = new HashSet<Dependency>();
     private final Set<AbstractProject<?,?>> visitedProj = new HashSet<AbstractProject<?,?>>();
     private boolean calculated = false;
-    private DependencyGraph dependencyGraph;
+    private final DependencyGraphIndex index;
+    private final VisibilityCache visibility;
+    private final int maxDepth;
+    private final Direction direction;
+
+    /**
+     * Direction in which dependencies are followed
+     */
+    public enum Direction {
+        UPSTREAM(true, false),
+        DOWNSTREAM(false, true),
+        BOTH(true, true);
+
+        final boolean upstream;
+        final boolean downstream;
+
+        Direction(boolean upstream, boolean downstream) {
+            this.upstream = upstream;
+            this.downstream = downstream;
+        }
+    }
 
     public CalculateDeps(Collection<? extends AbstractProject<?, ?>> projects) {
-        this.dependencyGraph = Hudson.getInstance().getDependencyGraph();
+        this(projects, UNLIMITED_DEPTH, Direction.BOTH);
+    }
+
+    /**
+     * @param maxDepth the maximum distance from the given projects, negative for no limit
+     * @param direction the direction in which dependencies are followed
+     */
+    public CalculateDeps(Collection<? extends AbstractProject<?, ?>> projects, int maxDepth, Direction direction) {
+        this(projects, maxDepth, direction, DependencyGraphIndex.get());
+    }
+
+    private CalculateDeps(Collection<? extends AbstractProject<?, ?>> projects, int maxDepth, Direction direction,
+                          DependencyGraphIndex index) {
+        this(projects, maxDepth, direction, index, VisibilityCache.forCurrentUser(index));
+    }
+
+    /**
+     * Calculates on the given snapshot instead of the one of the running Hudson
+     */
+    CalculateDeps(Collection<? extends AbstractProject<?, ?>> projects, int maxDepth, Direction direction,
+                  DependencyGraphIndex index, VisibilityCache visibility) {
+        this.index = index;
+        this.visibility = visibility;
+        this.maxDepth = maxDepth;
+        this.direction = direction;
         visitedProj.addAll(projects);
     }
 
     public void calculateNodesAndDependencies() {
         if (!calculated) {
-            calculateNodesAndDependencies(visitedProj);
+            BitSet components = new BitSet();
+            for (AbstractProject<?,?> project : visitedProj) {
+                int component = index.getComponent(project);
+                if (component >= 0) {
+                    components.set(component);
+                }
+            }
+            BitSet toTraverse = new BitSet();
+            int queueSize = 0;
+            boolean wholeComponents = maxDepth < 0 && direction == Direction.BOTH;
+            for (int c = components.nextSetBit(0); c >= 0; c = components.nextSetBit(c + 1)) {
+                if (wholeComponents && isReadable(c)) {
+                    visitedProj.addAll(index.getProjects(c));
+                    visitedDeps.addAll(index.getDependencies(c));
+                } else {
+                    toTraverse.set(c);
+                    queueSize += index.getComponentSize(c);
+                }
+            }
+            if (queueSize > 0) {
+                traverse(toTraverse, queueSize);
+            }
             calculated = true;
         }
     }
 
-    private void calculateNodesAndDependencies(Set<AbstractProject<?, ?>> fromProjects) {
-        Set<AbstractProject<?,?>> newProj = new HashSet<AbstractProject<?, ?>>();
-        for (AbstractProject<?,?> project : fromProjects) {
-            if (project.hasPermission(Item.READ)) {
-                newProj.addAll(
-                        addNewDependencies(dependencyGraph.getUpstreamDependencies(project),true));
-                newProj.addAll(
-                        addNewDependencies(dependencyGraph.getDownstreamDependencies(project),false));
+    private boolean isReadable(int component) {
+        for (int k = index.componentOffsets[component]; k < index.componentOffsets[component + 1]; k++) {
+            if (!visibility.isReadable(index.componentProjects[k])) {
+                return false;
             }
         }
-        visitedProj.addAll(newProj);
-        if (!newProj.isEmpty()) {
-            calculateNodesAndDependencies(newProj);
-        }
+        return true;
     }
 
-    private Set<AbstractProject<?, ?>> addNewDependencies(Collection<Dependency> dependencies, boolean isUpstream) {
-        Set<AbstractProject<?,?>> newProj = new HashSet<AbstractProject<?, ?>>();
-        for (Dependency dep : dependencies) {
-            AbstractProject<?,?> projectToAdd = isUpstream ? dep.getUpstreamProject() : dep.getDownstreamProject();
-            if (projectToAdd.hasPermission(Item.READ) && !visitedDeps.contains(dep)) {
-                visitedDeps.add(dep);
-                if (!visitedProj.contains(projectToAdd)) {
-                    newProj.add(projectToAdd);
+    /**
+     * Breadth first search from the start projects in the given components,
+     * only passing readable projects and stopping at the maximum depth
+     * @param queueSize the number of projects in the components
+     */
+    private void traverse(BitSet components, int queueSize) {
+        int[] queue = new int[queueSize];
+        int head = 0;
+        int tail = 0;
+        BitSet visited = new BitSet(index.getProjectCount());
+        BitSet visitedEdges = new BitSet(index.getDependencyCount());
+        for (AbstractProject<?,?> project : visitedProj) {
+            int id = index.getId(project);
+            if (id >= 0 && components.get(index.componentOf[id]) && !visited.get(id)) {
+                visited.set(id);
+                queue[tail++] = id;
+            }
+        }
+        int depth = 0;
+        int depthEnd = tail;
+        while (head < tail) {
+            if (head == depthEnd) {
+                depth++;
+                depthEnd = tail;
+            }
+            if (maxDepth >= 0 && depth >= maxDepth) {
+                break;
+            }
+            int id = queue[head++];
+            if (!visibility.isReadable(id)) {
+                continue;
+            }
+            if (direction.upstream) {
+                for (int k = index.upOffsets[id]; k < index.upOffsets[id + 1]; k++) {
+                    tail = visit(index.upEdges[k], index.edgeSource, queue, tail, visited, visitedEdges);
                 }
             }
+            if (direction.downstream) {
+                for (int k = index.downOffsets[id]; k < index.downOffsets[id + 1]; k++) {
+                    tail = visit(index.downEdges[k], index.edgeTarget, queue, tail, visited, visitedEdges);
+                }
+            }
+        }
+        for (int id = visited.nextSetBit(0); id >= 0; id = visited.nextSetBit(id + 1)) {
+            visitedProj.add(index.getProject(id));
+        }
+        for (int edge = visitedEdges.nextSetBit(0); edge >= 0; edge = visitedEdges.nextSetBit(edge + 1)) {
+            visitedDeps.add(index.getDependency(edge));
+        }
+    }
+
+    /**
+     * Adds the edge if the project at its other end is readable and enqueues that project if it is new
+     * @param otherEnd the project at the other end of each edge
+     * @return the new tail of the queue
+     */
+    private int visit(int edge, int[] otherEnd, int[] queue, int tail, BitSet visited, BitSet visitedEdges) {
+        int id = otherEnd[edge];
+        if (!visitedEdges.get(edge) && visibility.isReadable(id)) {
+            visitedEdges.set(edge);
+            if (!visited.get(id)) {
+                visited.set(id);
+                queue[tail++] = id;
+            }
         }
-        return newProj;
+        return tail;
     }
 
     /**
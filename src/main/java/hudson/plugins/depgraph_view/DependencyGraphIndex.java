@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph;
+import hudson.model.DependencyGraph.Dependency;
+import hudson.model.Hudson;
+import hudson.security.ACL;
+import org.acegisecurity.Authentication;
+import org.acegisecurity.context.SecurityContextHolder;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Snapshot of the whole dependency graph with the projects interned to
+ * int ids and the dependencies held in compressed adjacency arrays
+ * (offsets and edge ids per project, in both directions), together with
+ * the connected components calculated by union-find.
+ * The snapshot is calculated once for each dependency graph of Hudson
+ * and replaced as soon as Hudson rebuilds its dependency graph.
+ * Does not respect any permissions, this is left to the caller.
+ */
+public class DependencyGraphIndex {
+    private static final Logger LOGGER = Logger.getLogger(DependencyGraphIndex.class.getName());
+
+    private static volatile DependencyGraphIndex current;
+
+    // Counts the dependency graphs of Hudson seen so far, guarded by its own lock, since
+    // the class lock is held while an index is built
+    private static final Object VERSION_LOCK = new Object();
+    private static DependencyGraph versionedGraph;
+    private static long version = 0;
+
+    private final DependencyGraph dependencyGraph;
+    private final Map<AbstractProject<?,?>, Integer> ids = new HashMap<AbstractProject<?, ?>, Integer>();
+    private final AbstractProject<?,?>[] projects;
+    private final Dependency[] dependencies;
+
+    // Upstream and downstream project of each edge
+    final int[] edgeSource;
+    final int[] edgeTarget;
+
+    // The ids of the edges leaving project n are downEdges[downOffsets[n]] to downEdges[downOffsets[n+1]-1]
+    final int[] downOffsets;
+    final int[] downEdges;
+    // The ids of the edges entering project n are upEdges[upOffsets[n]] to upEdges[upOffsets[n+1]-1]
+    final int[] upOffsets;
+    final int[] upEdges;
+
+    final int[] componentOf;
+    // The projects and edges of each component, laid out like the adjacency arrays
+    final int[] componentOffsets;
+    final int[] componentProjects;
+    final int[] componentEdgeOffsets;
+    final int[] componentEdges;
+
+    /**
+     * @return the index for the current dependency graph of Hudson
+     */
+    public static DependencyGraphIndex get() {
+        DependencyGraph dependencyGraph = Hudson.getInstance().getDependencyGraph();
+        DependencyGraphIndex index = current;
+        if (index == null || index.dependencyGraph != dependencyGraph) {
+            synchronized (DependencyGraphIndex.class) {
+                index = current;
+                if (index == null || index.dependencyGraph != dependencyGraph) {
+                    index = new DependencyGraphIndex(dependencyGraph, getAllProjects());
+                    current = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The index is shared by all users, so it has to contain the projects which the user
+     * whose request happens to build it may not read
+     * @return all projects of Hudson
+     */
+    @SuppressWarnings("unchecked")
+    private static List<AbstractProject> getAllProjects() {
+        Authentication oldAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.getContext().setAuthentication(ACL.SYSTEM);
+        try {
+            return Hudson.getInstance().getAllItems(AbstractProject.class);
+        } finally {
+            SecurityContextHolder.getContext().setAuthentication(oldAuthentication);
+        }
+    }
+
+    /**
+     * Cheap check for a rebuild of the dependency graph, which does not calculate the index
+     * @return version of the current dependency graph of Hudson, which is increased on each rebuild
+     */
+    public static long getVersion() {
+        DependencyGraph dependencyGraph = Hudson.getInstance().getDependencyGraph();
+        synchronized (VERSION_LOCK) {
+            if (dependencyGraph != versionedGraph) {
+                versionedGraph = dependencyGraph;
+                version++;
+            }
+            return version;
+        }
+    }
+
+    DependencyGraphIndex(DependencyGraph dependencyGraph, Iterable<? extends AbstractProject> allProjects) {
+        this.dependencyGraph = dependencyGraph;
+        long start = System.currentTimeMillis();
+
+        List<AbstractProject<?,?>> projectList = new ArrayList<AbstractProject<?, ?>>();
+        List<Dependency> dependencyList = new ArrayList<Dependency>();
+        for (AbstractProject<?,?> project : allProjects) {
+            intern(project, projectList);
+        }
+        // projects only known to the dependency graph are interned on the fly
+        for (int i = 0; i < projectList.size(); i++) {
+            AbstractProject<?,?> project = projectList.get(i);
+            for (Dependency dep : dependencyGraph.getDownstreamDependencies(project)) {
+                dependencyList.add(dep);
+                intern(dep.getDownstreamProject(), projectList);
+            }
+            for (Dependency dep : dependencyGraph.getUpstreamDependencies(project)) {
+                intern(dep.getUpstreamProject(), projectList);
+            }
+        }
+        int projectCount = projectList.size();
+        int edgeCount = dependencyList.size();
+        projects = projectList.toArray(new AbstractProject<?, ?>[projectCount]);
+        dependencies = dependencyList.toArray(new Dependency[edgeCount]);
+
+        edgeSource = new int[edgeCount];
+        edgeTarget = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            edgeSource[e] = ids.get(dependencies[e].getUpstreamProject());
+            edgeTarget[e] = ids.get(dependencies[e].getDownstreamProject());
+        }
+        downOffsets = new int[projectCount + 1];
+        downEdges = new int[edgeCount];
+        groupBy(edgeSource, downOffsets, downEdges);
+        upOffsets = new int[projectCount + 1];
+        upEdges = new int[edgeCount];
+        groupBy(edgeTarget, upOffsets, upEdges);
+
+        int[] parent = new int[projectCount];
+        for (int n = 0; n < projectCount; n++) {
+            parent[n] = n;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            int sourceRoot = find(parent, edgeSource[e]);
+            int targetRoot = find(parent, edgeTarget[e]);
+            if (sourceRoot != targetRoot) {
+                parent[Math.max(sourceRoot, targetRoot)] = Math.min(sourceRoot, targetRoot);
+            }
+        }
+        // roots have the smallest id of their component, so numbering them in order is enough
+        componentOf = new int[projectCount];
+        int componentCount = 0;
+        for (int n = 0; n < projectCount; n++) {
+            int root = find(parent, n);
+            componentOf[n] = root == n ? componentCount++ : componentOf[root];
+        }
+        componentOffsets = new int[componentCount + 1];
+        componentProjects = new int[projectCount];
+        groupBy(componentOf, componentOffsets, componentProjects);
+        int[] componentOfEdge = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            componentOfEdge[e] = componentOf[edgeSource[e]];
+        }
+        componentEdgeOffsets = new int[componentCount + 1];
+        componentEdges = new int[edgeCount];
+        groupBy(componentOfEdge, componentEdgeOffsets, componentEdges);
+
+        LOGGER.fine("Calculated " + componentCount + " components of " + projectCount +
+                " projects in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    private int intern(AbstractProject<?,?> project, List<AbstractProject<?, ?>> projectList) {
+        Integer id = ids.get(project);
+        if (id == null) {
+            id = projectList.size();
+            ids.put(project, id);
+            projectList.add(project);
+        }
+        return id;
+    }
+
+    /**
+     * Counting sort of the indexes 0..keys.length-1 by their key, so that
+     * members[offsets[k]] to members[offsets[k+1]-1] are the indexes with key k
+     */
+    private static void groupBy(int[] keys, int[] offsets, int[] members) {
+        for (int key : keys) {
+            offsets[key + 1]++;
+        }
+        for (int k = 1; k < offsets.length; k++) {
+            offsets[k] += offsets[k - 1];
+        }
+        int[] next = new int[offsets.length - 1];
+        System.arraycopy(offsets, 0, next, 0, next.length);
+        for (int i = 0; i < keys.length; i++) {
+            members[next[keys[i]]++] = i;
+        }
+    }
+
+    private static int find(int[] parent, int id) {
+        int root = id;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // path compression
+        while (parent[id] != root) {
+            int next = parent[id];
+            parent[id] = root;
+            id = next;
+        }
+        return root;
+    }
+
+    /**
+     * @return the dependency graph of which the snapshot was taken
+     */
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+
+    /**
+     * @return the id of the project or -1 if the project is unknown
+     */
+    public int getId(AbstractProject<?,?> project) {
+        Integer id = ids.get(project);
+        return id == null ? -1 : id;
+    }
+
+    public AbstractProject<?,?> getProject(int id) {
+        return projects[id];
+    }
+
+    public Dependency getDependency(int edge) {
+        return dependencies[edge];
+    }
+
+    public int getProjectCount() {
+        return projects.length;
+    }
+
+    public int getDependencyCount() {
+        return dependencies.length;
+    }
+
+    /**
+     * @return the number of the component containing the project or -1 if the project is unknown
+     */
+    public int getComponent(AbstractProject<?,?> project) {
+        int id = getId(project);
+        return id < 0 ? -1 : componentOf[id];
+    }
+
+    /**
+     * @return the number of projects in the component
+     */
+    public int getComponentSize(int component) {
+        return componentOffsets[component + 1] - componentOffsets[component];
+    }
+
+    /**
+     * @return projects (nodes) in the component
+     */
+    public List<AbstractProject<?,?>> getProjects(final int component) {
+        return new AbstractList<AbstractProject<?, ?>>() {
+            @Override
+            public AbstractProject<?, ?> get(int i) {
+                return projects[componentProjects[componentOffsets[component] + i]];
+            }
+
+            @Override
+            public int size() {
+                return getComponentSize(component);
+            }
+        };
+    }
+
+    /**
+     * @return dependencies (edges) in the component
+     */
+    public List<Dependency> getDependencies(final int component) {
+        return new AbstractList<Dependency>() {
+            @Override
+            public Dependency get(int i) {
+                return dependencies[componentEdges[componentEdgeOffsets[component] + i]];
+            }
+
+            @Override
+            public int size() {
+                return componentEdgeOffsets[component + 1] - componentEdgeOffsets[component];
+            }
+        };
+    }
+
+}
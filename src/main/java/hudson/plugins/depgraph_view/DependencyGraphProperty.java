@@ -33,9 +33,13 @@ import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.StaplerRequest;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Class which keeps the configuration for the graphviz
- * executable.
+ * executable, for limiting the dot processes, for
+ * rendering small graphs inside Hudson and for prerendering.
  *
  * @author wolfs
  */
@@ -47,8 +51,17 @@ public class DependencyGraphProperty extends AbstractDescribableImpl<DependencyG
 
     @Extension
     public static class DescriptorImpl extends Descriptor<DependencyGraphProperty> {
+        private static final int DEFAULT_MAX_QUEUED_RENDERS = 20;
+        private static final int DEFAULT_RENDER_TIMEOUT = 60;
+        private static final int DEFAULT_JAVA_RENDERER_MAX_NODES = 300;
 
         private String dotExe;
+        private Integer maxConcurrentRenders;
+        private Integer maxQueuedRenders;
+        private Integer renderTimeout;
+        private boolean useJavaRenderer;
+        private Integer javaRendererMaxNodes;
+        private String prerenderViews;
 
         public DescriptorImpl() {
             load();
@@ -57,6 +70,12 @@ public class DependencyGraphProperty extends AbstractDescribableImpl<DependencyG
         @Override
         public boolean configure( StaplerRequest req, JSONObject o ) {
             dotExe = Util.fixEmptyAndTrim(o.getString("dotExe"));
+            maxConcurrentRenders = parsePositiveInteger(o.optString("maxConcurrentRenders"));
+            maxQueuedRenders = parseNonNegativeInteger(o.optString("maxQueuedRenders"));
+            renderTimeout = parsePositiveInteger(o.optString("renderTimeout"));
+            useJavaRenderer = o.optBoolean("useJavaRenderer");
+            javaRendererMaxNodes = parsePositiveInteger(o.optString("javaRendererMaxNodes"));
+            prerenderViews = Util.fixEmptyAndTrim(o.optString("prerenderViews"));
             save();
 
             return true;
@@ -91,6 +110,110 @@ public class DependencyGraphProperty extends AbstractDescribableImpl<DependencyG
             return FormValidation.validateExecutable(value);
         }
 
+        public Integer getMaxConcurrentRenders() {
+            return maxConcurrentRenders;
+        }
+
+        /**
+         * @return configured maximum number of dot processes running at the same time
+         *  or the number of processors
+         */
+        public int getMaxConcurrentRendersOrDefault() {
+            return maxConcurrentRenders == null ? Runtime.getRuntime().availableProcessors() : maxConcurrentRenders;
+        }
+
+        public Integer getMaxQueuedRenders() {
+            return maxQueuedRenders;
+        }
+
+        /**
+         * @return configured maximum number of renders waiting for a dot process or a default
+         */
+        public int getMaxQueuedRendersOrDefault() {
+            return maxQueuedRenders == null ? DEFAULT_MAX_QUEUED_RENDERS : maxQueuedRenders;
+        }
+
+        public Integer getRenderTimeout() {
+            return renderTimeout;
+        }
+
+        /**
+         * @return configured timeout for a render in seconds or a default
+         */
+        public int getRenderTimeoutOrDefault() {
+            return renderTimeout == null ? DEFAULT_RENDER_TIMEOUT : renderTimeout;
+        }
+
+        public boolean isUseJavaRenderer() {
+            return useJavaRenderer;
+        }
+
+        public Integer getJavaRendererMaxNodes() {
+            return javaRendererMaxNodes;
+        }
+
+        /**
+         * @return configured maximum number of projects in a graph rendered inside Hudson or a default
+         */
+        public int getJavaRendererMaxNodesOrDefault() {
+            return javaRendererMaxNodes == null ? DEFAULT_JAVA_RENDERER_MAX_NODES : javaRendererMaxNodes;
+        }
+
+        public String getPrerenderViews() {
+            return prerenderViews;
+        }
+
+        /**
+         * @return names of the views whose graphs are rendered in the background
+         */
+        public List<String> getPrerenderViewNames() {
+            List<String> names = new ArrayList<String>();
+            if (prerenderViews != null) {
+                for (String name : prerenderViews.split(",")) {
+                    if (Util.fixEmptyAndTrim(name) != null) {
+                        names.add(name.trim());
+                    }
+                }
+            }
+            return names;
+        }
+
+        public FormValidation doCheckJavaRendererMaxNodes(@QueryParameter final String value) {
+            return Util.fixEmptyAndTrim(value) == null ? FormValidation.ok() : FormValidation.validatePositiveInteger(value);
+        }
+
+        public FormValidation doCheckMaxConcurrentRenders(@QueryParameter final String value) {
+            return Util.fixEmptyAndTrim(value) == null ? FormValidation.ok() : FormValidation.validatePositiveInteger(value);
+        }
+
+        public FormValidation doCheckMaxQueuedRenders(@QueryParameter final String value) {
+            return Util.fixEmptyAndTrim(value) == null ? FormValidation.ok() : FormValidation.validateNonNegativeInteger(value);
+        }
+
+        public FormValidation doCheckRenderTimeout(@QueryParameter final String value) {
+            return Util.fixEmptyAndTrim(value) == null ? FormValidation.ok() : FormValidation.validatePositiveInteger(value);
+        }
+
+        /**
+         * @return the value or null if it is empty or not a positive integer
+         */
+        private static Integer parsePositiveInteger(String value) {
+            Integer integer = parseNonNegativeInteger(value);
+            return integer == null || integer == 0 ? null : integer;
+        }
+
+        /**
+         * @return the value or null if it is empty or not a non-negative integer
+         */
+        private static Integer parseNonNegativeInteger(String value) {
+            try {
+                Integer integer = Integer.valueOf(Util.fixEmptyAndTrim(value));
+                return integer < 0 ? null : integer;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
     }
 
 }
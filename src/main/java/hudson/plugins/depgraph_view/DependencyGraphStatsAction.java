@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Extension;
+import hudson.model.Hudson;
+import hudson.model.RootAction;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Shows the {@link GraphStatistics} as json to administrators at /depgraph-view-stats/.
+ * A POST to /depgraph-view-stats/reset drops the recorded values.
+ */
+@Extension
+public class DependencyGraphStatsAction implements RootAction {
+
+    public void doIndex(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Hudson.getInstance().checkPermission(Hudson.ADMINISTER);
+        rsp.setContentType("application/json;charset=UTF-8");
+        rsp.setHeader("Cache-Control", "no-cache");
+        PrintWriter writer = rsp.getWriter();
+        try {
+            GraphStatistics.get().toJson().write(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    public void doReset(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Hudson.getInstance().checkPermission(Hudson.ADMINISTER);
+        if (!"POST".equals(req.getMethod())) {
+            rsp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        GraphStatistics.get().reset();
+        rsp.sendRedirect2(".");
+    }
+
+    /**
+     * Hidden from the side panel
+     */
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.DependencyGraphStatsAction_DependencyGraphStatistics();
+    }
+
+    @Override
+    public String getUrlName() {
+        return "depgraph-view-stats";
+    }
+}
@@ -24,6 +24,7 @@ package hudson.plugins.depgraph_view;
 
 import hudson.Extension;
 import hudson.model.*;
+import org.kohsuke.stapler.StaplerRequest;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -61,6 +62,16 @@ public class DependencyGraphViewActionFactory extends TransientViewActionFactory
             return projects;
         }
 
+        @Override
+        protected void onGraphRequest(StaplerRequest req) {
+            DependencyGraphWarmer.recordRequest(view, Hudson.getInstance().getRootUrlFromRequest());
+        }
+
+        @Override
+        public boolean isSplittable() {
+            return true;
+        }
+
         @Override
         public String getTitle() {
             return Messages.AbstractDependencyGraphAction_DependencyGraphOf(view.getDisplayName());
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Extension;
+import hudson.model.Hudson;
+import hudson.model.PeriodicWork;
+import hudson.model.View;
+import hudson.plugins.depgraph_view.DependencyGraphViewActionFactory.DependencyGraphViewAction;
+import hudson.security.ACL;
+import org.acegisecurity.Authentication;
+import org.acegisecurity.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Renders the graphs of the configured and of the most requested views
+ * into the {@link RenderCache} after the dependency graph was rebuilt or
+ * projects or permissions changed, so that users find them ready.
+ * The graphs are rendered in a low priority background thread with the
+ * permissions of the system, so users who can read all projects of a graph
+ * get the prerendered output.
+ */
+@Extension
+public class DependencyGraphWarmer extends PeriodicWork {
+    private static final Logger LOGGER = Logger.getLogger(DependencyGraphWarmer.class.getName());
+
+    /**
+     * Number of the most requested views which are prerendered
+     */
+    private static final int POPULAR_VIEWS = Integer.getInteger(DependencyGraphWarmer.class.getName() + ".popularViews", 5);
+
+    // Number of requests of the graph of each view and the root url of the last request
+    private static final Map<View, Popularity> popularity = new WeakHashMap<View, Popularity>();
+    private static volatile String lastRootUrl;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "depgraph-view prerenderer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    private long warmedVersion = -1;
+    private long warmedEpoch = -1;
+    private Future<?> running;
+
+    private static class Popularity {
+        int requests = 0;
+        String rootUrl;
+    }
+
+    /**
+     * Counts a request of the graph of the view
+     * @param rootUrl the root url of Hudson as seen by the request
+     */
+    public static void recordRequest(View view, String rootUrl) {
+        lastRootUrl = rootUrl;
+        synchronized (popularity) {
+            Popularity viewPopularity = popularity.get(view);
+            if (viewPopularity == null) {
+                viewPopularity = new Popularity();
+                popularity.put(view, viewPopularity);
+            }
+            viewPopularity.requests++;
+            viewPopularity.rootUrl = rootUrl;
+        }
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return MIN / 2;
+    }
+
+    @Override
+    protected void doRun() {
+        long version = DependencyGraphIndex.getVersion();
+        long epoch = VisibilityCache.getEpoch();
+        if ((version == warmedVersion && epoch == warmedEpoch) || (running != null && !running.isDone())) {
+            return;
+        }
+        warmedVersion = version;
+        warmedEpoch = epoch;
+        final Map<View, String> views = getViewsToPrerender();
+        if (!views.isEmpty()) {
+            running = executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    prerender(views);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the configured views and the most requested views since the last
+     *  prerendering, with the root url to use for each view
+     */
+    private Map<View, String> getViewsToPrerender() {
+        Map<View, String> views = new LinkedHashMap<View, String>();
+        DependencyGraphProperty.DescriptorImpl descriptor =
+                Hudson.getInstance().getDescriptorByType(DependencyGraphProperty.DescriptorImpl.class);
+        String rootUrl = lastRootUrl != null ? lastRootUrl : Hudson.getInstance().getRootUrl();
+        if (rootUrl != null) {
+            for (String viewName : descriptor.getPrerenderViewNames()) {
+                View view = Hudson.getInstance().getView(viewName);
+                if (view != null) {
+                    views.put(view, rootUrl);
+                } else {
+                    LOGGER.fine("Cannot prerender unknown view " + viewName);
+                }
+            }
+        }
+        synchronized (popularity) {
+            List<Map.Entry<View, Popularity>> entries = new ArrayList<Map.Entry<View, Popularity>>(popularity.entrySet());
+            Collections.sort(entries, new Comparator<Map.Entry<View, Popularity>>() {
+                @Override
+                public int compare(Map.Entry<View, Popularity> o1, Map.Entry<View, Popularity> o2) {
+                    return o2.getValue().requests - o1.getValue().requests;
+                }
+            });
+            for (Map.Entry<View, Popularity> entry : entries.subList(0, Math.min(POPULAR_VIEWS, entries.size()))) {
+                if (!views.containsKey(entry.getKey())) {
+                    views.put(entry.getKey(), entry.getValue().rootUrl);
+                }
+            }
+            // only recent requests should count
+            popularity.clear();
+        }
+        return views;
+    }
+
+    private static void prerender(Map<View, String> views) {
+        Authentication oldAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.getContext().setAuthentication(ACL.SYSTEM);
+        try {
+            for (Map.Entry<View, String> entry : views.entrySet()) {
+                long start = System.currentTimeMillis();
+                try {
+                    new DependencyGraphViewAction(entry.getKey()).prerender(entry.getValue());
+                    LOGGER.fine("Prerendered the graph of view " + entry.getKey().getViewName() + " in " +
+                            (System.currentTimeMillis() - start) + "ms");
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to prerender the graph of view " + entry.getKey().getViewName(), e);
+                }
+            }
+        } finally {
+            SecurityContextHolder.getContext().setAuthentication(oldAuthentication);
+        }
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.Hudson;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the outputs of the graphviz tools in files below the root directory of Hudson,
+ * so they survive a restart and do not need to be rendered again.
+ * Files are named like the keys of the {@link RenderCache}. The least recently used
+ * files are deleted when the total size exceeds the configured number of bytes;
+ * the last modification time of a file records when it was last used.
+ */
+public class DiskRenderStore {
+    private static final Logger LOGGER = Logger.getLogger(DiskRenderStore.class.getName());
+
+    /**
+     * Maximum number of bytes kept on disk, can be changed via a system property
+     */
+    public static final long MAX_BYTES = Long.getLong(DiskRenderStore.class.getName() + ".maxBytes", 256L * 1024 * 1024);
+
+    private static final String DIRECTORY_NAME = "depgraph-view-renders";
+    // prefix of files which are still being written
+    private static final String TEMP_PREFIX = "tmp-";
+
+    private static final DiskRenderStore INSTANCE = new DiskRenderStore(MAX_BYTES);
+
+    private final long maxBytes;
+    private File directory;
+    private long currentBytes = 0;
+    // sizes of the files by key, access ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+
+    public DiskRenderStore(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the store shared by all dependency graph actions
+     */
+    public static DiskRenderStore get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reads the files which are already in the directory on first use, least recently used first
+     */
+    private synchronized File getDirectory() {
+        if (directory == null) {
+            directory = new File(Hudson.getInstance().getRootDir(), DIRECTORY_NAME);
+            directory.mkdirs();
+            File[] files = directory.listFiles();
+            if (files != null) {
+                Arrays.sort(files, new Comparator<File>() {
+                    public int compare(File o1, File o2) {
+                        long diff = o1.lastModified() - o2.lastModified();
+                        return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+                    }
+                });
+                for (File file : files) {
+                    if (file.getName().startsWith(TEMP_PREFIX)) {
+                        file.delete();
+                    } else {
+                        entries.put(file.getName(), file.length());
+                        currentBytes += file.length();
+                    }
+                }
+                evict();
+            }
+        }
+        return directory;
+    }
+
+    /**
+     * @return the file containing the output stored for the key or null if there is none
+     */
+    public synchronized File find(String key) {
+        File directory = getDirectory();
+        // get instead of containsKey, which would not mark the entry as recently used
+        if (entries.get(key) == null) {
+            return null;
+        }
+        File file = new File(directory, key);
+        if (!file.exists()) {
+            currentBytes -= entries.remove(key);
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Opens the file while no eviction can delete it. The open file stays readable
+     * after it is deleted, so it can be read after the lock is released.
+     * @return stream of the output stored for the key or null if there is none
+     */
+    public synchronized FileInputStream open(String key) {
+        File file = find(key);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            currentBytes -= entries.remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * @return the output stored for the key or null if there is none
+     */
+    public byte[] read(String key) {
+        FileInputStream input = open(key);
+        if (input != null) {
+            try {
+                return IOUtils.toByteArray(input);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to read stored render " + key, e);
+            } finally {
+                IOUtils.closeQuietly(input);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the output, replacing an older one for the key, and deletes the least recently
+     * used files if necessary. Outputs larger than the whole store are not stored.
+     * Failures are logged, since the outputs can be rendered again.
+     */
+    public synchronized void store(String key, byte[] output) {
+        if (output.length > maxBytes) {
+            return;
+        }
+        File directory = getDirectory();
+        File temp = new File(directory, TEMP_PREFIX + key);
+        try {
+            FileUtils.writeByteArrayToFile(temp, output);
+            File file = new File(directory, key);
+            if (!temp.renameTo(file)) {
+                file.delete();
+                if (!temp.renameTo(file)) {
+                    throw new IOException("Failed to rename " + temp + " to " + file);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to store render " + key, e);
+            temp.delete();
+            return;
+        }
+        Long old = entries.put(key, (long) output.length);
+        if (old != null) {
+            currentBytes -= old;
+        }
+        currentBytes += output.length;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            new File(directory, eldest.getKey()).delete();
+            currentBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    /**
+     * Copies the opened file to the stream with a channel transfer instead of reading it into the heap
+     * and closes the file
+     */
+    public static void transferTo(FileInputStream input, OutputStream output) throws IOException {
+        try {
+            FileChannel channel = input.getChannel();
+            WritableByteChannel target = Channels.newChannel(output);
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    public synchronized long getSizeInBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Util;
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph.Dependency;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the last versions of each requested graph, so clients which poll a graph
+ * only get the nodes and edges which changed since the version they hold.
+ * A version is a digest of the nodes and edges of the graph, so each state is kept
+ * only once, however many users and requests see the same graph. The histories only
+ * hold versions, the states are evicted when their estimated size exceeds a limit.
+ */
+public class GraphHistory {
+    /**
+     * Number of versions kept for each graph
+     */
+    private static final int MAX_VERSIONS = Integer.getInteger(GraphHistory.class.getName() + ".maxVersions", 10);
+    /**
+     * Number of graphs for which versions are kept
+     */
+    private static final int MAX_GRAPHS = Integer.getInteger(GraphHistory.class.getName() + ".maxGraphs", 200);
+    /**
+     * Estimated number of bytes of all kept states, can be changed via a system property
+     */
+    public static final long MAX_BYTES = Long.getLong(GraphHistory.class.getName() + ".maxBytes", 32L * 1024 * 1024);
+
+    private static final GraphHistory INSTANCE = new GraphHistory(MAX_BYTES);
+
+    // access ordered, so the least recently requested graph is dropped first
+    private final LinkedHashMap<String, History> histories =
+            new LinkedHashMap<String, History>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, History> eldest) {
+                    return size() > MAX_GRAPHS;
+                }
+            };
+    // states by version, access ordered, so the least recently used state is evicted first
+    private final LinkedHashMap<String, GraphState> states = new LinkedHashMap<String, GraphState>(16, 0.75f, true);
+    private final long maxBytes;
+    private long currentBytes = 0;
+
+    public GraphHistory(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Versions of one graph, the latest one last
+     */
+    private static class History {
+        final LinkedList<String> versions = new LinkedList<String>();
+        // version of the dependency graph and permissions the latest version was calculated from
+        String sourceVersion;
+    }
+
+    /**
+     * Nodes and edges of one version of a graph
+     */
+    public static class GraphState {
+        // separates the names of the projects of an edge, which is not allowed in the name of a project
+        private static final char EDGE_SEPARATOR = '/';
+        // rough number of bytes of a map or set entry and of a string besides its characters
+        private static final int ENTRY_OVERHEAD = 48;
+        private static final int STRING_OVERHEAD = 40;
+
+        private final String version;
+        private final long size;
+        // urls by name of the projects
+        private final SortedMap<String, String> nodes = new TreeMap<String, String>();
+        private final SortedSet<String> edges = new TreeSet<String>();
+
+        /**
+         * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+         */
+        public GraphState(Set<AbstractProject<?, ?>> projects, Set<Dependency> deps, String rootUrl) {
+            for (AbstractProject<?,?> project : projects) {
+                nodes.put(project.getName(), rootUrl + project.getUrl());
+            }
+            for (Dependency dep : deps) {
+                edges.add(dep.getUpstreamProject().getName() + EDGE_SEPARATOR + dep.getDownstreamProject().getName());
+            }
+            StringBuilder content = new StringBuilder();
+            for (Map.Entry<String, String> node : nodes.entrySet()) {
+                content.append(node.getKey()).append(' ').append(node.getValue()).append('\n');
+            }
+            for (String edge : edges) {
+                content.append(edge).append('\n');
+            }
+            version = Util.getDigestOf(content.toString());
+            // rough estimate: the entries of the map and the set and two bytes for each character
+            size = nodes.size() * (ENTRY_OVERHEAD + STRING_OVERHEAD) + edges.size() * (ENTRY_OVERHEAD + STRING_OVERHEAD)
+                    + 2L * (content.length() - version.length());
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @return estimated number of bytes held by the state
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Writes {"version":"...","unchanged":true}
+         */
+        public void writeUnchanged(Writer writer) throws IOException {
+            writer.append("{\"version\":\"").append(version).append("\",\"unchanged\":true}");
+        }
+
+        /**
+         * Writes the whole graph as
+         * {"version":"...","full":true,"nodes":[{"name":"a","url":"..."},...],"edges":[["a","b"],...]}
+         */
+        public void writeFull(Writer writer) throws IOException {
+            writer.append("{\"version\":\"").append(version).append("\",\"full\":true,\n\"nodes\":");
+            writeNodes(writer, nodes.keySet());
+            writer.append(",\n\"edges\":");
+            writeEdges(writer, edges);
+            writer.append('}');
+        }
+
+        /**
+         * Writes the changes since the older version as
+         * {"version":"...","addedNodes":[{"name":"a","url":"..."},...],"removedNodes":["b",...],
+         * "addedEdges":[["a","b"],...],"removedEdges":[["b","c"],...]}
+         */
+        public void writeDelta(Writer writer, GraphState older) throws IOException {
+            SortedSet<String> addedNodes = new TreeSet<String>(nodes.keySet());
+            addedNodes.removeAll(older.nodes.keySet());
+            SortedSet<String> removedNodes = new TreeSet<String>(older.nodes.keySet());
+            removedNodes.removeAll(nodes.keySet());
+            SortedSet<String> addedEdges = new TreeSet<String>(edges);
+            addedEdges.removeAll(older.edges);
+            SortedSet<String> removedEdges = new TreeSet<String>(older.edges);
+            removedEdges.removeAll(edges);
+
+            writer.append("{\"version\":\"").append(version).append("\",\n\"addedNodes\":");
+            writeNodes(writer, addedNodes);
+            writer.append(",\n\"removedNodes\":[");
+            boolean first = true;
+            for (String name : removedNodes) {
+                writer.append(first ? "" : ",").append(AbstractDependencyGraphAction.escapeJson(name));
+                first = false;
+            }
+            writer.append("],\n\"addedEdges\":");
+            writeEdges(writer, addedEdges);
+            writer.append(",\n\"removedEdges\":");
+            writeEdges(writer, removedEdges);
+            writer.append('}');
+        }
+
+        private void writeNodes(Writer writer, Collection<String> names) throws IOException {
+            writer.append('[');
+            boolean first = true;
+            for (String name : names) {
+                writer.append(first ? "" : ",").append("{\"name\":").append(AbstractDependencyGraphAction.escapeJson(name))
+                        .append(",\"url\":").append(AbstractDependencyGraphAction.escapeJson(nodes.get(name))).append('}');
+                first = false;
+            }
+            writer.append(']');
+        }
+
+        private static void writeEdges(Writer writer, Collection<String> edges) throws IOException {
+            writer.append('[');
+            boolean first = true;
+            for (String edge : edges) {
+                int separator = edge.indexOf(EDGE_SEPARATOR);
+                writer.append(first ? "[" : ",[")
+                        .append(AbstractDependencyGraphAction.escapeJson(edge.substring(0, separator))).append(',')
+                        .append(AbstractDependencyGraphAction.escapeJson(edge.substring(separator + 1))).append(']');
+                first = false;
+            }
+            writer.append(']');
+        }
+    }
+
+    /**
+     * @return the history shared by all dependency graph actions
+     */
+    public static GraphHistory get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param sourceVersion version of the dependency graph and permissions
+     * @return the latest version of the graph if it was calculated from the given source version
+     *  and is still kept, null otherwise
+     */
+    public synchronized GraphState getLatest(String key, String sourceVersion) {
+        History history = histories.get(key);
+        if (history == null || !sourceVersion.equals(history.sourceVersion)) {
+            return null;
+        }
+        return states.get(history.versions.getLast());
+    }
+
+    /**
+     * @return the given version of the graph or null if it is not kept (anymore)
+     */
+    public synchronized GraphState find(String key, String version) {
+        History history = histories.get(key);
+        if (history != null && history.versions.contains(version)) {
+            return states.get(version);
+        }
+        return null;
+    }
+
+    /**
+     * Adds the state as the latest version of the graph and drops the oldest versions if necessary.
+     * An equal state which is already kept for another graph is shared.
+     * @param sourceVersion version of the dependency graph and permissions the state was calculated from
+     * @return the kept state, which equals the given one
+     */
+    public synchronized GraphState add(String key, GraphState state, String sourceVersion) {
+        History history = histories.get(key);
+        if (history == null) {
+            history = new History();
+            histories.put(key, history);
+        }
+        // keep each version only once, as the latest one
+        history.versions.remove(state.version);
+        history.versions.addLast(state.version);
+        history.sourceVersion = sourceVersion;
+        while (history.versions.size() > MAX_VERSIONS) {
+            history.versions.removeFirst();
+        }
+        GraphState kept = states.get(state.version);
+        if (kept != null) {
+            return kept;
+        }
+        if (state.size > maxBytes) {
+            return state;
+        }
+        states.put(state.version, state);
+        currentBytes += state.size;
+        Iterator<GraphState> it = states.values().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            currentBytes -= it.next().size;
+            it.remove();
+        }
+        return state;
+    }
+
+    public synchronized long getSizeInBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int getStateCount() {
+        return states.size();
+    }
+
+}
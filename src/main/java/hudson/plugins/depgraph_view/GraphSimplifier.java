@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph.Dependency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Makes a graph smaller before it is laid out: removes the edges which are implied
+ * by other paths (transitive reduction) and collapses projects which depend on each
+ * other in a cycle (strongly connected components) into one summary node.
+ * The summary node is represented by the project with the smallest name of the cycle.
+ */
+public class GraphSimplifier {
+    private static final Comparator<AbstractProject<?,?>> NAME_COMPARATOR = new Comparator<AbstractProject<?,?>>() {
+        public int compare(AbstractProject<?,?> o1, AbstractProject<?,?> o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
+    private final Set<AbstractProject<?,?>> projects = new LinkedHashSet<AbstractProject<?, ?>>();
+    private final Set<Dependency> deps = new LinkedHashSet<Dependency>();
+    private final Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed =
+            new LinkedHashMap<AbstractProject<?, ?>, List<AbstractProject<?, ?>>>();
+
+    // projects sorted by name, edges as offsets into targets by source
+    private final List<AbstractProject<?,?>> nodes;
+    private final int[] offsets;
+    private final int[] targets;
+    // strongly connected component of each project, numbered in reverse topological order
+    private final int[] componentOf;
+    private int componentCount;
+
+    /**
+     * @param reduce remove the edges which are implied by other paths
+     * @param collapseCycles replace the projects of each cycle by one summary node
+     */
+    public GraphSimplifier(Set<AbstractProject<?,?>> projects, Set<Dependency> deps,
+                           boolean reduce, boolean collapseCycles) {
+        nodes = new ArrayList<AbstractProject<?, ?>>(projects);
+        Collections.sort(nodes, NAME_COMPARATOR);
+        Map<AbstractProject<?,?>, Integer> ids = new HashMap<AbstractProject<?, ?>, Integer>();
+        for (int i = 0; i < nodes.size(); i++) {
+            ids.put(nodes.get(i), i);
+        }
+        int[] from = new int[deps.size()];
+        int[] to = new int[deps.size()];
+        Dependency[] edges = new Dependency[deps.size()];
+        int edgeCount = 0;
+        for (Dependency dep : deps) {
+            Integer upstream = ids.get(dep.getUpstreamProject());
+            Integer downstream = ids.get(dep.getDownstreamProject());
+            if (upstream != null && downstream != null) {
+                from[edgeCount] = upstream;
+                to[edgeCount] = downstream;
+                edges[edgeCount++] = dep;
+            }
+        }
+        offsets = new int[nodes.size() + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        targets = new int[edgeCount];
+        int[] next = Arrays.copyOf(offsets, nodes.size());
+        for (int i = 0; i < edgeCount; i++) {
+            targets[next[from[i]]++] = to[i];
+        }
+
+        componentOf = new int[nodes.size()];
+        findComponents();
+        int[] componentSize = new int[componentCount];
+        int[] representative = new int[componentCount];
+        Arrays.fill(representative, -1);
+        for (int i = 0; i < nodes.size(); i++) {
+            int component = componentOf[i];
+            componentSize[component]++;
+            if (representative[component] == -1) {
+                representative[component] = i;
+            }
+        }
+        BitSet[] implied = reduce ? impliedSuccessors() : null;
+
+        for (int i = 0; i < nodes.size(); i++) {
+            int component = componentOf[i];
+            if (!collapseCycles || componentSize[component] == 1) {
+                this.projects.add(nodes.get(i));
+            } else {
+                AbstractProject<?,?> summary = nodes.get(representative[component]);
+                if (representative[component] == i) {
+                    this.projects.add(summary);
+                    collapsed.put(summary, new ArrayList<AbstractProject<?, ?>>());
+                }
+                collapsed.get(summary).add(nodes.get(i));
+            }
+        }
+        // the dependencies of Hudson are groups which never equal another dependency,
+        // so the edges merged into one between summary nodes are deduplicated here
+        Set<Long> merged = new HashSet<Long>();
+        for (int i = 0; i < edgeCount; i++) {
+            int upstream = componentOf[from[i]];
+            int downstream = componentOf[to[i]];
+            if (upstream == downstream) {
+                if (!collapseCycles || componentSize[upstream] == 1) {
+                    this.deps.add(edges[i]);
+                }
+            } else if ((implied == null || !implied[upstream].get(downstream))
+                    && (!collapseCycles || merged.add((long) upstream * componentCount + downstream))) {
+                if (collapseCycles && (representative[upstream] != from[i] || representative[downstream] != to[i])) {
+                    this.deps.add(new Dependency(nodes.get(representative[upstream]), nodes.get(representative[downstream])));
+                } else {
+                    this.deps.add(edges[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tarjan's algorithm without recursion, so deep graphs do not overflow the stack.
+     * Components are numbered in the order they are completed, so every component
+     * reachable from a component has a smaller number.
+     */
+    private void findComponents() {
+        int n = nodes.size();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] nextEdge = new int[n];
+        int[] stack = new int[n];
+        int[] calls = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int stackSize = 0;
+        for (int start = 0; start < n; start++) {
+            if (index[start] != -1) {
+                continue;
+            }
+            int callDepth = 0;
+            index[start] = low[start] = counter++;
+            nextEdge[start] = offsets[start];
+            stack[stackSize++] = start;
+            onStack[start] = true;
+            calls[callDepth++] = start;
+            while (callDepth > 0) {
+                int node = calls[callDepth - 1];
+                if (nextEdge[node] < offsets[node + 1]) {
+                    int target = targets[nextEdge[node]++];
+                    if (index[target] == -1) {
+                        index[target] = low[target] = counter++;
+                        nextEdge[target] = offsets[target];
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        calls[callDepth++] = target;
+                    } else if (onStack[target]) {
+                        low[node] = Math.min(low[node], index[target]);
+                    }
+                } else {
+                    callDepth--;
+                    if (callDepth > 0) {
+                        int caller = calls[callDepth - 1];
+                        low[caller] = Math.min(low[caller], low[node]);
+                    }
+                    if (low[node] == index[node]) {
+                        int member;
+                        do {
+                            member = stack[--stackSize];
+                            onStack[member] = false;
+                            componentOf[member] = componentCount;
+                        } while (member != node);
+                        componentCount++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return for each component the components which are reachable by a path of
+     * at least two edges between different components, i.e. whose direct edges are redundant
+     */
+    private BitSet[] impliedSuccessors() {
+        BitSet[] successors = new BitSet[componentCount];
+        for (int i = 0; i < componentCount; i++) {
+            successors[i] = new BitSet();
+        }
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                if (componentOf[node] != componentOf[targets[edge]]) {
+                    successors[componentOf[node]].set(componentOf[targets[edge]]);
+                }
+            }
+        }
+        // successors have smaller numbers, so they are complete when they are needed
+        BitSet[] reachable = new BitSet[componentCount];
+        BitSet[] implied = new BitSet[componentCount];
+        for (int component = 0; component < componentCount; component++) {
+            implied[component] = new BitSet();
+            BitSet successor = successors[component];
+            for (int i = successor.nextSetBit(0); i >= 0; i = successor.nextSetBit(i + 1)) {
+                implied[component].or(reachable[i]);
+            }
+            reachable[component] = (BitSet) implied[component].clone();
+            reachable[component].or(successor);
+        }
+        return implied;
+    }
+
+    public Set<AbstractProject<?, ?>> getProjects() {
+        return Collections.unmodifiableSet(projects);
+    }
+
+    public Set<Dependency> getDependencies() {
+        return Collections.unmodifiableSet(deps);
+    }
+
+    /**
+     * @return the projects of each summary node, by the project which represents it
+     */
+    public Map<AbstractProject<?, ?>, List<AbstractProject<?, ?>>> getCollapsed() {
+        return Collections.unmodifiableMap(collapsed);
+    }
+}
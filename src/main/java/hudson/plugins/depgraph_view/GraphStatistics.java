@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import net.sf.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and histograms of the stages of graph requests, so one can see
+ * where the time of slow graph pages goes.
+ * Times are recorded in microseconds. The values are kept since the start
+ * of Hudson or the last {@link #reset()}.
+ */
+public class GraphStatistics {
+    /**
+     * Time for calculating the projects and dependencies of a graph
+     */
+    public static final String TRAVERSAL = "traversalMicros";
+    /**
+     * Number of projects of a graph
+     */
+    public static final String NODES = "nodes";
+    /**
+     * Number of dependencies of a graph
+     */
+    public static final String EDGES = "edges";
+    /**
+     * Time for generating the graphviz code
+     */
+    public static final String DOT_TEXT = "dotTextMicros";
+    /**
+     * Size of the UTF-8 encoded graphviz code
+     */
+    public static final String DOT_BYTES = "dotBytes";
+    /**
+     * Time waiting for a slot to run dot
+     */
+    public static final String QUEUE_WAIT = "queueWaitMicros";
+    /**
+     * Wall time of a run of dot
+     */
+    public static final String DOT = "dotMicros";
+    /**
+     * Prefix of the counters of the exit status of dot
+     */
+    public static final String DOT_EXIT = "dotExit.";
+    /**
+     * Number of runs of dot which were killed since they exceeded the render timeout
+     */
+    public static final String TIMED_OUT = "timedOut";
+    /**
+     * Number of graph requests
+     */
+    public static final String REQUESTS = "requests";
+    /**
+     * Number of graph requests answered with 304 Not Modified
+     */
+    public static final String NOT_MODIFIED = "notModified";
+    /**
+     * Number of renders rejected because too many were waiting
+     */
+    public static final String REJECTED = "rejected";
+
+    /**
+     * Number of graph requests which shared the render of a concurrent identical request
+     */
+    public static final String COALESCED = "coalesced";
+
+    /**
+     * Maximum number of graphs for which the latency is kept
+     */
+    private static final int MAX_GRAPHS = Integer.getInteger(GraphStatistics.class.getName() + ".maxGraphs", 100);
+
+    private static final GraphStatistics INSTANCE = new GraphStatistics();
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+    // access ordered, so the least recently requested graph is dropped first
+    private final Map<String, Histogram> latencies = new LinkedHashMap<String, Histogram>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Histogram> eldest) {
+            return size() > MAX_GRAPHS;
+        }
+    };
+    private volatile long since = System.currentTimeMillis();
+
+    /**
+     * Histogram of non-negative values with buckets growing exponentially, eight per power of two,
+     * so percentiles are at most 12.5% below the recorded values
+     */
+    public static class Histogram {
+        private static final int SUB_BUCKETS = 8;
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            buckets.incrementAndGet(bucketOf(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            long currentMax;
+            do {
+                currentMax = max.get();
+            } while (value > currentMax && !max.compareAndSet(currentMax, value));
+        }
+
+        private static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long lowerBoundOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the lower bound of the bucket containing the percentile, 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= rank) {
+                    return lowerBoundOf(bucket);
+                }
+            }
+            return max.get();
+        }
+
+        /**
+         * @return count, mean, max, p50, p90 and p99 of the recorded values
+         */
+        public JSONObject toJson() {
+            long total = count.get();
+            JSONObject json = new JSONObject();
+            json.put("count", total);
+            json.put("mean", total == 0 ? 0 : sum.get() / total);
+            json.put("max", max.get());
+            json.put("p50", getPercentile(50));
+            json.put("p90", getPercentile(90));
+            json.put("p99", getPercentile(99));
+            return json;
+        }
+    }
+
+    /**
+     * @return the statistics shared by all dependency graph actions
+     */
+    public static GraphStatistics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a value to the histogram of the given name
+     */
+    public void record(String name, long value) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histograms.putIfAbsent(name, new Histogram());
+            histogram = histograms.get(name);
+        }
+        histogram.record(value);
+    }
+
+    /**
+     * Adds the time a request of a graph took
+     * @param graph the url of the graph, without query
+     */
+    public void recordLatency(String graph, long micros) {
+        Histogram histogram;
+        synchronized (latencies) {
+            histogram = latencies.get(graph);
+            if (histogram == null) {
+                histogram = new Histogram();
+                latencies.put(graph, histogram);
+            }
+        }
+        histogram.record(micros);
+    }
+
+    public void increment(String counter) {
+        AtomicLong value = counters.get(counter);
+        if (value == null) {
+            counters.putIfAbsent(counter, new AtomicLong());
+            value = counters.get(counter);
+        }
+        value.incrementAndGet();
+    }
+
+    /**
+     * Drops all recorded values
+     */
+    public void reset() {
+        histograms.clear();
+        counters.clear();
+        synchronized (latencies) {
+            latencies.clear();
+        }
+        since = System.currentTimeMillis();
+    }
+
+    /**
+     * @return counters, stage histograms, latencies by graph and the state of the render caches and queue
+     */
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("since", since);
+        JSONObject counterJson = new JSONObject();
+        for (Map.Entry<String, AtomicLong> counter : new TreeMap<String, AtomicLong>(counters).entrySet()) {
+            counterJson.put(counter.getKey(), counter.getValue().get());
+        }
+        json.put("counters", counterJson);
+        JSONObject histogramJson = new JSONObject();
+        for (Map.Entry<String, Histogram> histogram : new TreeMap<String, Histogram>(histograms).entrySet()) {
+            histogramJson.put(histogram.getKey(), histogram.getValue().toJson());
+        }
+        json.put("histograms", histogramJson);
+        Map<String, Histogram> latencyCopy;
+        synchronized (latencies) {
+            latencyCopy = new TreeMap<String, Histogram>(latencies);
+        }
+        JSONObject latencyJson = new JSONObject();
+        for (Map.Entry<String, Histogram> latency : latencyCopy.entrySet()) {
+            latencyJson.put(latency.getKey(), latency.getValue().toJson());
+        }
+        json.put("latencyMicros", latencyJson);
+
+        RenderCache cache = RenderCache.get();
+        JSONObject cacheJson = new JSONObject();
+        cacheJson.put("hits", cache.getHits());
+        cacheJson.put("misses", cache.getMisses());
+        cacheJson.put("entries", cache.getEntryCount());
+        cacheJson.put("bytes", cache.getSizeInBytes());
+        cacheJson.put("maxBytes", cache.getMaxBytes());
+        json.put("renderCache", cacheJson);
+        DiskRenderStore store = DiskRenderStore.get();
+        JSONObject storeJson = new JSONObject();
+        storeJson.put("entries", store.getEntryCount());
+        storeJson.put("bytes", store.getSizeInBytes());
+        storeJson.put("maxBytes", store.getMaxBytes());
+        json.put("renderStore", storeJson);
+        GraphHistory history = GraphHistory.get();
+        JSONObject historyJson = new JSONObject();
+        historyJson.put("states", history.getStateCount());
+        historyJson.put("bytes", history.getSizeInBytes());
+        historyJson.put("maxBytes", GraphHistory.MAX_BYTES);
+        json.put("graphHistory", historyJson);
+        JSONObject schedulerJson = new JSONObject();
+        schedulerJson.put("running", RenderScheduler.get().getRunning());
+        schedulerJson.put("waiting", RenderScheduler.get().getWaiting());
+        json.put("renderQueue", schedulerJson);
+        return json;
+    }
+}
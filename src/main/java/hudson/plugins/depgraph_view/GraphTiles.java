@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Util;
+import hudson.model.AbstractProject;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The connected components containing a set of projects, packed into the tiles of the
+ * components page. Large components get a tile of their own, small ones share tiles, so
+ * a graph of many small components does not need a render for each of them.
+ * The components are taken from the {@link DependencyGraphIndex}. Only components with
+ * projects the user may not read are traversed, since they can fall apart into several
+ * components for that user.
+ * The tiles are cached, so the requests of the tiles of a page do not calculate them again.
+ */
+public class GraphTiles {
+    // Components up to this number of projects are packed into shared tiles
+    static final int SMALL_COMPONENT_SIZE = 10;
+
+    // Maximum number of projects in a shared tile
+    static final int SHARED_TILE_SIZE = 60;
+
+    // Tiles shown on one page of the components, well below the default of the queued renders
+    public static final int TILES_PER_PAGE = 12;
+
+    // Maximum number of cached tilings, of different pages, users or graphs
+    private static final int MAX_CACHED = 32;
+
+    private static final Map<String, GraphTiles> cache = new LinkedHashMap<String, GraphTiles>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GraphTiles> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    private static final Comparator<GraphComponent> LARGEST_FIRST = new Comparator<GraphComponent>() {
+        public int compare(GraphComponent o1, GraphComponent o2) {
+            if (o1.size != o2.size) {
+                return o2.size < o1.size ? -1 : 1;
+            }
+            return o1.representative.getName().compareTo(o2.representative.getName());
+        }
+    };
+
+    private final List<GraphTile> tiles = new ArrayList<GraphTile>();
+
+    /**
+     * A connected component of the graph. A large component is shown by the dependency graph of its
+     * representative, which is the whole component, so it is rendered and cached on its own.
+     */
+    public static final class GraphComponent {
+        private final AbstractProject<?,?> representative;
+        private final int size;
+
+        GraphComponent(AbstractProject<?,?> representative, int size) {
+            this.representative = representative;
+            this.size = size;
+        }
+
+        /**
+         * @return the project with the smallest name in the component
+         */
+        public AbstractProject<?,?> getRepresentative() {
+            return representative;
+        }
+
+        /**
+         * @return the number of projects in the component
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * A tile of the components page, holding one large or several small components
+     */
+    public static final class GraphTile {
+        private final int index;
+        private final List<GraphComponent> components = new ArrayList<GraphComponent>();
+        private int size;
+
+        GraphTile(int index) {
+            this.index = index;
+        }
+
+        private void add(GraphComponent component) {
+            components.add(component);
+            size += component.getSize();
+        }
+
+        /**
+         * @return the position of the tile, given by the tile parameter to render this tile
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public List<GraphComponent> getComponents() {
+            return Collections.unmodifiableList(components);
+        }
+
+        /**
+         * @return the number of projects in the components of the tile
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return whether the tile holds several components, so it is not the graph of one project
+         */
+        public boolean isShared() {
+            return components.size() > 1;
+        }
+
+        /**
+         * @return a project of each component, from which the whole tile is calculated
+         */
+        public List<AbstractProject<?,?>> getRepresentatives() {
+            List<AbstractProject<?,?>> representatives = new ArrayList<AbstractProject<?,?>>();
+            for (GraphComponent component : components) {
+                representatives.add(component.getRepresentative());
+            }
+            return representatives;
+        }
+    }
+
+    /**
+     * One page of the tiles
+     */
+    public static final class TilePage {
+        private final List<GraphTile> tiles;
+        private final int page;
+        private final int pageCount;
+
+        TilePage(List<GraphTile> tiles, int page, int pageCount) {
+            this.tiles = tiles;
+            this.page = page;
+            this.pageCount = pageCount;
+        }
+
+        public List<GraphTile> getTiles() {
+            return tiles;
+        }
+
+        /**
+         * @return the number of the page, starting at 0
+         */
+        public int getPage() {
+            return page;
+        }
+
+        public int getPageCount() {
+            return pageCount;
+        }
+    }
+
+    /**
+     * Packs the components into tiles, the largest first. Each component larger than
+     * {@link #SMALL_COMPONENT_SIZE} is a tile of its own, the smaller ones share tiles of up to
+     * {@link #SHARED_TILE_SIZE} projects.
+     * @param projects the projects whose components are shown
+     */
+    GraphTiles(Collection<? extends AbstractProject<?,?>> projects, DependencyGraphIndex index,
+               VisibilityCache visibility) {
+        GraphTile shared = null;
+        for (GraphComponent component : findComponents(projects, index, visibility)) {
+            if (component.getSize() > SMALL_COMPONENT_SIZE) {
+                GraphTile tile = new GraphTile(tiles.size());
+                tile.add(component);
+                tiles.add(tile);
+            } else {
+                if (shared == null || shared.getSize() + component.getSize() > SHARED_TILE_SIZE) {
+                    shared = new GraphTile(tiles.size());
+                    tiles.add(shared);
+                }
+                shared.add(component);
+            }
+        }
+    }
+
+    /**
+     * @param key identifies the projects, the user and the versions of the graph and the permissions
+     * @return the cached tiles or null if there are none for the key
+     */
+    static synchronized GraphTiles getCached(String key) {
+        return cache.get(key);
+    }
+
+    static synchronized void putCached(String key, GraphTiles tiles) {
+        cache.put(key, tiles);
+    }
+
+    /**
+     * @return the components containing the projects, the largest first and those of equal size by name
+     */
+    private static List<GraphComponent> findComponents(Collection<? extends AbstractProject<?,?>> projects,
+                                                       DependencyGraphIndex index, VisibilityCache visibility) {
+        List<GraphComponent> components = new ArrayList<GraphComponent>();
+        BitSet found = new BitSet();
+        BitSet visited = new BitSet(index.getProjectCount());
+        Set<AbstractProject<?,?>> unknown = new HashSet<AbstractProject<?, ?>>();
+        for (AbstractProject<?,?> project : projects) {
+            int id = index.getId(project);
+            if (id < 0) {
+                // created after the snapshot, so it has no dependencies yet
+                if (unknown.add(project)) {
+                    components.add(new GraphComponent(project, 1));
+                }
+                continue;
+            }
+            int component = index.componentOf[id];
+            if (found.get(component) || visited.get(id)) {
+                continue;
+            }
+            if (isReadable(index, visibility, component)) {
+                found.set(component);
+                components.add(new GraphComponent(first(index.getProjects(component)), index.getComponentSize(component)));
+            } else {
+                components.add(traverse(id, index, visibility, visited));
+            }
+        }
+        Collections.sort(components, LARGEST_FIRST);
+        return components;
+    }
+
+    private static boolean isReadable(DependencyGraphIndex index, VisibilityCache visibility, int component) {
+        for (int k = index.componentOffsets[component]; k < index.componentOffsets[component + 1]; k++) {
+            if (!visibility.isReadable(index.componentProjects[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Breadth first search from the project through the readable projects, like {@link CalculateDeps}
+     * @return the component of the project as the user sees it
+     */
+    private static GraphComponent traverse(int start, DependencyGraphIndex index, VisibilityCache visibility,
+                                           BitSet visited) {
+        List<AbstractProject<?,?>> members = new ArrayList<AbstractProject<?, ?>>();
+        int[] queue = new int[index.getComponentSize(index.componentOf[start])];
+        int head = 0;
+        int tail = 0;
+        visited.set(start);
+        queue[tail++] = start;
+        while (head < tail) {
+            int id = queue[head++];
+            members.add(index.getProject(id));
+            if (!visibility.isReadable(id)) {
+                continue;
+            }
+            for (int k = index.upOffsets[id]; k < index.upOffsets[id + 1]; k++) {
+                tail = visit(index.edgeSource[index.upEdges[k]], visibility, queue, tail, visited);
+            }
+            for (int k = index.downOffsets[id]; k < index.downOffsets[id + 1]; k++) {
+                tail = visit(index.edgeTarget[index.downEdges[k]], visibility, queue, tail, visited);
+            }
+        }
+        return new GraphComponent(first(members), members.size());
+    }
+
+    private static int visit(int id, VisibilityCache visibility, int[] queue, int tail, BitSet visited) {
+        if (!visited.get(id) && visibility.isReadable(id)) {
+            visited.set(id);
+            queue[tail++] = id;
+        }
+        return tail;
+    }
+
+    /**
+     * @return the project with the smallest name
+     */
+    private static AbstractProject<?,?> first(List<AbstractProject<?,?>> projects) {
+        AbstractProject<?,?> first = projects.get(0);
+        for (AbstractProject<?,?> project : projects) {
+            if (project.getName().compareTo(first.getName()) < 0) {
+                first = project;
+            }
+        }
+        return first;
+    }
+
+    public List<GraphTile> getTiles() {
+        return Collections.unmodifiableList(tiles);
+    }
+
+    /**
+     * @return the tile at the position or null if there is none
+     */
+    public GraphTile getTile(int index) {
+        return index >= 0 && index < tiles.size() ? tiles.get(index) : null;
+    }
+
+    /**
+     * @param page the number of the page, starting at 0, the first page if it is not a number
+     * @return the tiles of the page, at most {@link #TILES_PER_PAGE}, so one page never asks for
+     * more renders than the render queue takes
+     */
+    public TilePage getPage(String page) {
+        int pageCount = Math.max(1, (tiles.size() + TILES_PER_PAGE - 1) / TILES_PER_PAGE);
+        int number = 0;
+        try {
+            number = Integer.parseInt(Util.fixNull(page).trim());
+        } catch (NumberFormatException e) {
+            // the first page
+        }
+        number = Math.max(0, Math.min(number, pageCount - 1));
+        int from = number * TILES_PER_PAGE;
+        return new TilePage(getTiles().subList(from, Math.min(tiles.size(), from + TILES_PER_PAGE)), number, pageCount);
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph.Dependency;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the dependency graph inside the JVM, without forking dot.
+ * Lays out the graph with a {@link LayeredLayout} and writes it as
+ * svg, png or client side image map (cmapx), using the same coordinates
+ * for all formats.
+ */
+public class JavaGraphRenderer {
+    private static final int FONT_SIZE = 12;
+    // estimated width of a character, so the layout does not depend on the fonts of the system
+    private static final int CHAR_WIDTH = 7;
+    private static final int NODE_PADDING = 20;
+    private static final int MIN_NODE_WIDTH = 40;
+    private static final int ARROW_SIZE = 8;
+    // height of each further line of the label of a summary node
+    private static final int LINE_HEIGHT = 16;
+    // distance of the second border of a summary node, like peripheries=2 of dot
+    private static final int PERIPHERY_GAP = 4;
+    private static final String UTF8 = "UTF-8";
+
+    private final String[] names;
+    // lines of the label of each node, the names of the projects of a summary node
+    private final String[][] labels;
+    private final boolean[] summary;
+    private final String[] urls;
+    private final int[] widths;
+    private final int[] heights;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final LayeredLayout layout;
+
+    /**
+     * @param projects the nodes of the graph
+     * @param deps the edges of the graph
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     */
+    public JavaGraphRenderer(Set<AbstractProject<?, ?>> projects, Set<Dependency> deps, String rootUrl) {
+        this(projects, deps, Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap(), rootUrl);
+    }
+
+    /**
+     * @param projects the nodes of the graph
+     * @param deps the edges of the graph
+     * @param collapsed the projects of each summary node, by the project which represents it
+     * @param rootUrl the root url of Hudson, which is prepended to the urls of the projects
+     */
+    public JavaGraphRenderer(Set<AbstractProject<?, ?>> projects, Set<Dependency> deps,
+                             Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed, String rootUrl) {
+        List<AbstractProject<?,?>> sortedProjects = new ArrayList<AbstractProject<?, ?>>(projects);
+        Collections.sort(sortedProjects, new Comparator<AbstractProject<?, ?>>() {
+            @Override
+            public int compare(AbstractProject<?, ?> o1, AbstractProject<?, ?> o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        int nodeCount = sortedProjects.size();
+        names = new String[nodeCount];
+        labels = new String[nodeCount][];
+        summary = new boolean[nodeCount];
+        urls = new String[nodeCount];
+        widths = new int[nodeCount];
+        heights = new int[nodeCount];
+        Map<AbstractProject<?,?>, Integer> ids = new HashMap<AbstractProject<?, ?>, Integer>();
+        for (int n = 0; n < nodeCount; n++) {
+            AbstractProject<?,?> project = sortedProjects.get(n);
+            ids.put(project, n);
+            List<AbstractProject<?,?>> members = collapsed.get(project);
+            summary[n] = members != null;
+            if (members == null) {
+                labels[n] = new String[]{project.getName()};
+            } else {
+                labels[n] = new String[members.size()];
+                for (int i = 0; i < members.size(); i++) {
+                    labels[n][i] = members.get(i).getName();
+                }
+            }
+            StringBuilder name = new StringBuilder();
+            int longest = 0;
+            for (String line : labels[n]) {
+                name.append(name.length() == 0 ? "" : ", ").append(line);
+                longest = Math.max(longest, line.length());
+            }
+            names[n] = name.toString();
+            urls[n] = rootUrl + project.getUrl();
+            widths[n] = Math.max(MIN_NODE_WIDTH, longest * CHAR_WIDTH + NODE_PADDING)
+                    + (summary[n] ? 2 * PERIPHERY_GAP : 0);
+            heights[n] = LayeredLayout.NODE_HEIGHT + (labels[n].length - 1) * LINE_HEIGHT
+                    + (summary[n] ? 2 * PERIPHERY_GAP : 0);
+        }
+        List<int[]> edges = new ArrayList<int[]>();
+        for (Dependency dep : deps) {
+            Integer from = ids.get(dep.getUpstreamProject());
+            Integer to = ids.get(dep.getDownstreamProject());
+            if (from != null && to != null) {
+                edges.add(new int[]{from, to});
+            }
+        }
+        Collections.sort(edges, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] o1, int[] o2) {
+                return o1[0] != o2[0] ? o1[0] - o2[0] : o1[1] - o2[1];
+            }
+        });
+        edgeFrom = new int[edges.size()];
+        edgeTo = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            edgeFrom[e] = edges.get(e)[0];
+            edgeTo[e] = edges.get(e)[1];
+        }
+        layout = new LayeredLayout(nodeCount, edgeFrom, edgeTo, widths, heights);
+    }
+
+    /**
+     * @param type the parameter for the -T option of the graphviz tools
+     * @return whether the renderer can create this type of output
+     */
+    public static boolean supports(String type) {
+        return "svg".equals(type) || "png".equals(type) || "cmapx".equals(type);
+    }
+
+    /**
+     * @param type the parameter for the -T option of the graphviz tools, one of the supported types
+     * @return the rendered graph
+     */
+    public byte[] render(String type) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if ("png".equals(type)) {
+            writePng(output);
+        } else {
+            Writer writer = new OutputStreamWriter(output, UTF8);
+            if ("svg".equals(type)) {
+                writeSvg(writer);
+            } else {
+                writeMap(writer);
+            }
+            writer.close();
+        }
+        return output.toByteArray();
+    }
+
+    public void writeSvg(Writer writer) throws IOException {
+        int width = (int) Math.ceil(layout.getWidth());
+        int height = (int) Math.ceil(layout.getHeight());
+        writer.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+        writer.append("<svg xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\"")
+                .append(" width=\"").append(String.valueOf(width)).append("\"")
+                .append(" height=\"").append(String.valueOf(height)).append("\"")
+                .append(" viewBox=\"0 0 ").append(String.valueOf(width)).append(' ')
+                .append(String.valueOf(height)).append("\">\n");
+        writer.append("<defs><marker id=\"arrow\" markerWidth=\"").append(String.valueOf(ARROW_SIZE))
+                .append("\" markerHeight=\"").append(String.valueOf(ARROW_SIZE))
+                .append("\" refX=\"").append(String.valueOf(ARROW_SIZE))
+                .append("\" refY=\"").append(String.valueOf(ARROW_SIZE / 2))
+                .append("\" orient=\"auto\" markerUnits=\"userSpaceOnUse\"><path d=\"M0,0 L")
+                .append(String.valueOf(ARROW_SIZE)).append(',').append(String.valueOf(ARROW_SIZE / 2))
+                .append(" L0,").append(String.valueOf(ARROW_SIZE)).append(" z\"/></marker></defs>\n");
+        for (int e = 0; e < edgeFrom.length; e++) {
+            double[] points = layout.getEdgePoints(e);
+            if (points == null) {
+                continue;
+            }
+            writer.append("<polyline fill=\"none\" stroke=\"black\" marker-end=\"url(#arrow)\" points=\"");
+            for (int i = 0; i < points.length; i += 2) {
+                writer.append(i == 0 ? "" : " ").append(format(points[i])).append(',').append(format(points[i + 1]));
+            }
+            writer.append("\"/>\n");
+        }
+        for (int n = 0; n < names.length; n++) {
+            writer.append("<a xlink:href=\"").append(escapeXml(urls[n])).append("\" xlink:title=\"")
+                    .append(escapeXml(names[n])).append("\">");
+            writeSvgRect(writer, left(n), top(n), widths[n], heights[n]);
+            if (summary[n]) {
+                writeSvgRect(writer, left(n) + PERIPHERY_GAP, top(n) + PERIPHERY_GAP,
+                        widths[n] - 2 * PERIPHERY_GAP, heights[n] - 2 * PERIPHERY_GAP);
+            }
+            for (int line = 0; line < labels[n].length; line++) {
+                writer.append("<text text-anchor=\"middle\" font-family=\"sans-serif\" font-size=\"")
+                        .append(String.valueOf(FONT_SIZE)).append("\" x=\"").append(format(layout.getX(n)))
+                        .append("\" y=\"").append(format(lineY(n, line))).append("\">")
+                        .append(escapeXml(labels[n][line])).append("</text>");
+            }
+            writer.append("</a>\n");
+        }
+        writer.append("</svg>\n");
+    }
+
+    private static void writeSvgRect(Writer writer, double left, double top, int width, int height)
+            throws IOException {
+        writer.append("<rect fill=\"white\" stroke=\"black\" rx=\"8\" ry=\"8\" x=\"").append(format(left))
+                .append("\" y=\"").append(format(top))
+                .append("\" width=\"").append(String.valueOf(width))
+                .append("\" height=\"").append(String.valueOf(height)).append("\"/>");
+    }
+
+    public void writeMap(Writer writer) throws IOException {
+        writer.append("<map id=\"depgraph\" name=\"depgraph\">\n");
+        for (int n = 0; n < names.length; n++) {
+            writer.append("<area shape=\"rect\" href=\"").append(escapeXml(urls[n]))
+                    .append("\" title=\"").append(escapeXml(names[n]))
+                    .append("\" alt=\"\" coords=\"")
+                    .append(String.valueOf(Math.round(left(n)))).append(',')
+                    .append(String.valueOf(Math.round(top(n)))).append(',')
+                    .append(String.valueOf(Math.round(left(n) + widths[n]))).append(',')
+                    .append(String.valueOf(Math.round(top(n) + heights[n]))).append("\"/>\n");
+        }
+        writer.append("</map>\n");
+    }
+
+    public void writePng(OutputStream output) throws IOException {
+        BufferedImage image = new BufferedImage((int) Math.ceil(layout.getWidth()),
+                (int) Math.ceil(layout.getHeight()), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setColor(Color.BLACK);
+            g.setStroke(new BasicStroke(1));
+            for (int e = 0; e < edgeFrom.length; e++) {
+                double[] points = layout.getEdgePoints(e);
+                if (points != null) {
+                    drawEdge(g, points);
+                }
+            }
+            g.setFont(new Font("SansSerif", Font.PLAIN, FONT_SIZE));
+            FontMetrics metrics = g.getFontMetrics();
+            for (int n = 0; n < names.length; n++) {
+                RoundRectangle2D box = new RoundRectangle2D.Double(left(n), top(n),
+                        widths[n], heights[n], 16, 16);
+                g.setColor(Color.WHITE);
+                g.fill(box);
+                g.setColor(Color.BLACK);
+                g.draw(box);
+                if (summary[n]) {
+                    g.draw(new RoundRectangle2D.Double(left(n) + PERIPHERY_GAP, top(n) + PERIPHERY_GAP,
+                            widths[n] - 2 * PERIPHERY_GAP, heights[n] - 2 * PERIPHERY_GAP, 16, 16));
+                }
+                for (int line = 0; line < labels[n].length; line++) {
+                    g.drawString(labels[n][line],
+                            (float) (layout.getX(n) - metrics.stringWidth(labels[n][line]) / 2.0),
+                            (float) lineY(n, line));
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        ImageIO.write(image, "png", output);
+    }
+
+    private static void drawEdge(Graphics2D g, double[] points) {
+        GeneralPath line = new GeneralPath();
+        line.moveTo((float) points[0], (float) points[1]);
+        for (int i = 2; i < points.length; i += 2) {
+            line.lineTo((float) points[i], (float) points[i + 1]);
+        }
+        g.draw(line);
+        // arrow head in the direction of the last segment
+        double endX = points[points.length - 2];
+        double endY = points[points.length - 1];
+        double angle = Math.atan2(endY - points[points.length - 3], endX - points[points.length - 4]);
+        GeneralPath arrow = new GeneralPath();
+        arrow.moveTo((float) endX, (float) endY);
+        arrow.lineTo((float) (endX - ARROW_SIZE * Math.cos(angle - Math.PI / 6)),
+                (float) (endY - ARROW_SIZE * Math.sin(angle - Math.PI / 6)));
+        arrow.lineTo((float) (endX - ARROW_SIZE * Math.cos(angle + Math.PI / 6)),
+                (float) (endY - ARROW_SIZE * Math.sin(angle + Math.PI / 6)));
+        arrow.closePath();
+        g.fill(arrow);
+    }
+
+    private double left(int node) {
+        return layout.getX(node) - widths[node] / 2.0;
+    }
+
+    private double top(int node) {
+        return layout.getY(node) - heights[node] / 2.0;
+    }
+
+    // baseline of a line of the label, the lines are centered around the center of the node
+    private double lineY(int node, int line) {
+        return layout.getY(node) + (line - (labels[node].length - 1) / 2.0) * LINE_HEIGHT + FONT_SIZE / 3.0;
+    }
+
+    private static String format(double value) {
+        return String.valueOf(Math.round(value * 10) / 10.0);
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+}
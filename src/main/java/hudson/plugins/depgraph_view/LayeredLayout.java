@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sugiyama style layered layout of a directed graph with rectangular nodes.
+ * <ol>
+ *     <li>Breaks cycles by reversing the back edges of a depth first search</li>
+ *     <li>Assigns layers by the longest path from the sources</li>
+ *     <li>Splits edges spanning several layers by dummy nodes</li>
+ *     <li>Reduces crossings by barycenter sweeps</li>
+ *     <li>Places the nodes of each layer close to the mean position of their neighbours</li>
+ * </ol>
+ * Nodes and edges are given by int ids, the layout yields the center of each
+ * node and a polyline from source to target for each edge.
+ */
+public class LayeredLayout {
+    public static final int NODE_HEIGHT = 36;
+    private static final int RANK_SEP = 50;
+    private static final int NODE_SEP = 20;
+    private static final int DUMMY_WIDTH = 10;
+    private static final int MARGIN = 10;
+    private static final int ORDERING_SWEEPS = 24;
+    private static final int PLACEMENT_SWEEPS = 8;
+
+    private final int nodeCount;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+
+    // width and layer of all nodes, the real nodes come first, followed by the dummy nodes
+    private final List<Integer> widths = new ArrayList<Integer>();
+    private final int[] heights;
+    private final List<Integer> layerOf = new ArrayList<Integer>();
+    // neighbours of all nodes in the layer above and below
+    private final List<List<Integer>> upper = new ArrayList<List<Integer>>();
+    private final List<List<Integer>> lower = new ArrayList<List<Integer>>();
+    private List<List<Integer>> layers = new ArrayList<List<Integer>>();
+    // chain of nodes from the source to the target of each edge, null for self loops
+    private final int[][] chains;
+    private final boolean[] reversed;
+
+    private double[] x;
+    // vertical center of each layer
+    private double[] layerY;
+    private double width;
+    private double height;
+
+    /**
+     * @param nodeCount the number of nodes, with the ids 0..nodeCount-1
+     * @param edgeFrom the source of each edge
+     * @param edgeTo the target of each edge
+     * @param nodeWidths the width of each node
+     */
+    public LayeredLayout(int nodeCount, int[] edgeFrom, int[] edgeTo, int[] nodeWidths) {
+        this(nodeCount, edgeFrom, edgeTo, nodeWidths, null);
+    }
+
+    /**
+     * @param nodeCount the number of nodes, with the ids 0..nodeCount-1
+     * @param edgeFrom the source of each edge
+     * @param edgeTo the target of each edge
+     * @param nodeWidths the width of each node
+     * @param nodeHeights the height of each node, null for {@link #NODE_HEIGHT} for all nodes
+     */
+    public LayeredLayout(int nodeCount, int[] edgeFrom, int[] edgeTo, int[] nodeWidths, int[] nodeHeights) {
+        this.nodeCount = nodeCount;
+        this.heights = nodeHeights;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.chains = new int[edgeFrom.length][];
+        this.reversed = new boolean[edgeFrom.length];
+        for (int n = 0; n < nodeCount; n++) {
+            addNode(nodeWidths[n], 0);
+        }
+        breakCycles();
+        assignLayers();
+        splitLongEdges();
+        orderLayers();
+        placeNodes();
+    }
+
+    private int addNode(int nodeWidth, int layer) {
+        widths.add(nodeWidth);
+        layerOf.add(layer);
+        upper.add(new ArrayList<Integer>());
+        lower.add(new ArrayList<Integer>());
+        return widths.size() - 1;
+    }
+
+    private void breakCycles() {
+        List<List<Integer>> outEdges = new ArrayList<List<Integer>>();
+        for (int n = 0; n < nodeCount; n++) {
+            outEdges.add(new ArrayList<Integer>());
+        }
+        for (int e = 0; e < edgeFrom.length; e++) {
+            outEdges.get(edgeFrom[e]).add(e);
+        }
+        // 0 = not visited, 1 = on the stack, 2 = finished
+        int[] state = new int[nodeCount];
+        int[] stack = new int[nodeCount];
+        int[] nextEdge = new int[nodeCount];
+        for (int root = 0; root < nodeCount; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            state[root] = 1;
+            while (depth > 0) {
+                int node = stack[depth - 1];
+                if (nextEdge[node] < outEdges.get(node).size()) {
+                    int e = outEdges.get(node).get(nextEdge[node]++);
+                    int target = edgeTo[e];
+                    if (state[target] == 1) {
+                        reversed[e] = true;
+                    } else if (state[target] == 0) {
+                        state[target] = 1;
+                        stack[depth++] = target;
+                    }
+                } else {
+                    state[node] = 2;
+                    depth--;
+                }
+            }
+        }
+    }
+
+    private int upperEnd(int e) {
+        return reversed[e] ? edgeTo[e] : edgeFrom[e];
+    }
+
+    private int lowerEnd(int e) {
+        return reversed[e] ? edgeFrom[e] : edgeTo[e];
+    }
+
+    private void assignLayers() {
+        int[] inDegree = new int[nodeCount];
+        List<List<Integer>> outEdges = new ArrayList<List<Integer>>();
+        for (int n = 0; n < nodeCount; n++) {
+            outEdges.add(new ArrayList<Integer>());
+        }
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (edgeFrom[e] != edgeTo[e]) {
+                outEdges.get(upperEnd(e)).add(e);
+                inDegree[lowerEnd(e)]++;
+            }
+        }
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int n = 0; n < nodeCount; n++) {
+            if (inDegree[n] == 0) {
+                queue[tail++] = n;
+            }
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e : outEdges.get(node)) {
+                int target = lowerEnd(e);
+                layerOf.set(target, Math.max(layerOf.get(target), layerOf.get(node) + 1));
+                if (--inDegree[target] == 0) {
+                    queue[tail++] = target;
+                }
+            }
+        }
+    }
+
+    private void splitLongEdges() {
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (edgeFrom[e] == edgeTo[e]) {
+                continue;
+            }
+            int top = upperEnd(e);
+            int bottom = lowerEnd(e);
+            int span = layerOf.get(bottom) - layerOf.get(top);
+            int[] chain = new int[span + 1];
+            chain[0] = top;
+            for (int i = 1; i < span; i++) {
+                chain[i] = addNode(DUMMY_WIDTH, layerOf.get(top) + i);
+            }
+            chain[span] = bottom;
+            for (int i = 0; i < span; i++) {
+                lower.get(chain[i]).add(chain[i + 1]);
+                upper.get(chain[i + 1]).add(chain[i]);
+            }
+            chains[e] = chain;
+        }
+        int layerCount = 0;
+        for (int layer : layerOf) {
+            layerCount = Math.max(layerCount, layer + 1);
+        }
+        for (int l = 0; l < layerCount; l++) {
+            layers.add(new ArrayList<Integer>());
+        }
+        for (int n = 0; n < layerOf.size(); n++) {
+            layers.get(layerOf.get(n)).add(n);
+        }
+    }
+
+    private void orderLayers() {
+        final double[] position = new double[widths.size()];
+        updatePositions(layers, position);
+        List<List<Integer>> best = copy(layers);
+        int bestCrossings = countCrossings(position);
+        for (int sweep = 0; sweep < ORDERING_SWEEPS && bestCrossings > 0; sweep++) {
+            boolean down = sweep % 2 == 0;
+            for (int i = 1; i < layers.size(); i++) {
+                int l = down ? i : layers.size() - 1 - i;
+                final List<List<Integer>> neighbours = down ? upper : lower;
+                final double[] barycenter = new double[widths.size()];
+                for (int node : layers.get(l)) {
+                    barycenter[node] = mean(neighbours.get(node), position, position[node]);
+                }
+                Collections.sort(layers.get(l), new Comparator<Integer>() {
+                    @Override
+                    public int compare(Integer o1, Integer o2) {
+                        return Double.compare(barycenter[o1], barycenter[o2]);
+                    }
+                });
+                updatePositions(Collections.singletonList(layers.get(l)), position);
+            }
+            int crossings = countCrossings(position);
+            if (crossings < bestCrossings) {
+                bestCrossings = crossings;
+                best = copy(layers);
+            }
+        }
+        layers = best;
+    }
+
+    private static List<List<Integer>> copy(List<List<Integer>> layers) {
+        List<List<Integer>> copy = new ArrayList<List<Integer>>();
+        for (List<Integer> layer : layers) {
+            copy.add(new ArrayList<Integer>(layer));
+        }
+        return copy;
+    }
+
+    private static void updatePositions(List<List<Integer>> layers, double[] position) {
+        for (List<Integer> layer : layers) {
+            for (int i = 0; i < layer.size(); i++) {
+                position[layer.get(i)] = i;
+            }
+        }
+    }
+
+    private static double mean(List<Integer> nodes, double[] values, double defaultValue) {
+        if (nodes.isEmpty()) {
+            return defaultValue;
+        }
+        double sum = 0;
+        for (int node : nodes) {
+            sum += values[node];
+        }
+        return sum / nodes.size();
+    }
+
+    private int countCrossings(double[] position) {
+        int crossings = 0;
+        for (List<Integer> layer : layers) {
+            List<double[]> segments = new ArrayList<double[]>();
+            for (int node : layer) {
+                for (int below : lower.get(node)) {
+                    segments.add(new double[]{position[node], position[below]});
+                }
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                for (int j = i + 1; j < segments.size(); j++) {
+                    double[] s1 = segments.get(i);
+                    double[] s2 = segments.get(j);
+                    if ((s1[0] - s2[0]) * (s1[1] - s2[1]) < 0) {
+                        crossings++;
+                    }
+                }
+            }
+        }
+        return crossings;
+    }
+
+    private void placeNodes() {
+        x = new double[widths.size()];
+        for (List<Integer> layer : layers) {
+            double cursor = 0;
+            for (int node : layer) {
+                x[node] = cursor + widths.get(node) / 2.0;
+                cursor += widths.get(node) + NODE_SEP;
+            }
+        }
+        for (int sweep = 0; sweep < PLACEMENT_SWEEPS; sweep++) {
+            boolean down = sweep % 2 == 0;
+            for (int i = 1; i < layers.size(); i++) {
+                List<Integer> layer = layers.get(down ? i : layers.size() - 1 - i);
+                List<List<Integer>> neighbours = down ? upper : lower;
+                double[] desired = new double[layer.size()];
+                for (int k = 0; k < layer.size(); k++) {
+                    desired[k] = mean(neighbours.get(layer.get(k)), x, x[layer.get(k)]);
+                }
+                place(layer, desired);
+            }
+        }
+        double minX = Double.MAX_VALUE;
+        double maxX = 0;
+        for (int n = 0; n < widths.size(); n++) {
+            minX = Math.min(minX, x[n] - widths.get(n) / 2.0);
+        }
+        for (int n = 0; n < widths.size(); n++) {
+            x[n] += MARGIN - minX;
+            maxX = Math.max(maxX, x[n] + widths.get(n) / 2.0);
+        }
+        width = maxX + MARGIN;
+        // each layer is as high as its highest node
+        layerY = new double[layers.size()];
+        double top = MARGIN;
+        for (int l = 0; l < layers.size(); l++) {
+            int layerHeight = NODE_HEIGHT;
+            for (int node : layers.get(l)) {
+                layerHeight = Math.max(layerHeight, getNodeHeight(node));
+            }
+            layerY[l] = top + layerHeight / 2.0;
+            top += layerHeight + RANK_SEP;
+        }
+        height = top - (layers.isEmpty() ? 0 : RANK_SEP) + MARGIN;
+    }
+
+    /**
+     * Places the nodes of a layer as close as possible to the desired positions while keeping
+     * their order and distance. Averaging a left packed and a right packed placement keeps
+     * the distance, since both placements keep it.
+     */
+    private void place(List<Integer> layer, double[] desired) {
+        int size = layer.size();
+        double[] left = new double[size];
+        double[] right = new double[size];
+        for (int k = 0; k < size; k++) {
+            left[k] = k == 0 ? desired[k] : Math.max(desired[k], left[k - 1] + gap(layer, k - 1));
+        }
+        for (int k = size - 1; k >= 0; k--) {
+            right[k] = k == size - 1 ? desired[k] : Math.min(desired[k], right[k + 1] - gap(layer, k));
+        }
+        for (int k = 0; k < size; k++) {
+            x[layer.get(k)] = (left[k] + right[k]) / 2;
+        }
+    }
+
+    // minimal distance between the centers of the node at k and its right neighbour
+    private double gap(List<Integer> layer, int k) {
+        return (widths.get(layer.get(k)) + widths.get(layer.get(k + 1))) / 2.0 + NODE_SEP;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * @return horizontal center of the node
+     */
+    public double getX(int node) {
+        return x[node];
+    }
+
+    /**
+     * @return vertical center of the node
+     */
+    public double getY(int node) {
+        return layerY[layerOf.get(node)];
+    }
+
+    /**
+     * @return height of the node, dummy nodes are as high as a node with one line
+     */
+    public int getNodeHeight(int node) {
+        return heights == null || node >= nodeCount ? NODE_HEIGHT : heights[node];
+    }
+
+    /**
+     * @return the points x0, y0, x1, y1, ... of the polyline from the source
+     *  to the target of the edge, or null for self loops
+     */
+    public double[] getEdgePoints(int edge) {
+        int[] chain = chains[edge];
+        if (chain == null) {
+            return null;
+        }
+        double[] points = new double[2 * chain.length];
+        for (int i = 0; i < chain.length; i++) {
+            points[2 * i] = x[chain[i]];
+            points[2 * i + 1] = getY(chain[i]);
+        }
+        // start at the bottom of the upper node and end at the top of the lower one
+        points[1] += getNodeHeight(chain[0]) / 2.0;
+        points[points.length - 1] -= getNodeHeight(chain[chain.length - 1]) / 2.0;
+        if (reversed[edge]) {
+            for (int i = 0; i < chain.length / 2; i++) {
+                int j = chain.length - 1 - i;
+                swap(points, 2 * i, 2 * j);
+                swap(points, 2 * i + 1, 2 * j + 1);
+            }
+        }
+        return points;
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache for the output of the graphviz tools.
+ * Entries are keyed by a digest of the dot text and the argument
+ * for the -T option, so an unchanged graph is laid out only once.
+ * Least recently used entries are evicted when the total size of the
+ * cached outputs exceeds the configured number of bytes.
+ */
+public class RenderCache {
+    /**
+     * Maximum number of bytes kept in the cache, can be changed via a system property
+     */
+    public static final long MAX_BYTES = Long.getLong(RenderCache.class.getName() + ".maxBytes", 32L * 1024 * 1024);
+
+    private static final RenderCache INSTANCE = new RenderCache(MAX_BYTES);
+
+    private final long maxBytes;
+    private long currentBytes = 0;
+    // access ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RenderCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the cache shared by all dependency graph actions
+     */
+    public static RenderCache get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param dotDigest digest of the graphviz code which is rendered
+     * @param dotType the parameter for the -T option of the graphviz tools
+     * @return key under which the rendered output is cached
+     */
+    public static String keyOf(String dotDigest, String dotType) {
+        return dotDigest + "." + dotType;
+    }
+
+    /**
+     * @return the cached output or null if there is none
+     */
+    public synchronized byte[] get(String key) {
+        byte[] output = entries.get(key);
+        if (output == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return output;
+    }
+
+    /**
+     * @return whether an output is cached for the key, without counting a hit or miss
+     */
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Adds the output to the cache and evicts the least recently used entries
+     * if necessary. Outputs larger than the whole cache are not stored.
+     */
+    public synchronized void put(String key, byte[] output) {
+        if (output.length > maxBytes) {
+            return;
+        }
+        byte[] old = entries.put(key, output);
+        if (old != null) {
+            currentBytes -= old.length;
+        }
+        currentBytes += output.length;
+        Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            currentBytes -= eldest.getValue().length;
+            it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Proc;
+
+import java.io.IOException;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.logging.Logger;
+
+/**
+ * Limits the number of dot processes running at the same time.
+ * Renders beyond the limit wait in a bounded queue, renders which
+ * do not fit into the queue are rejected. Running dot processes are
+ * killed when they exceed the render timeout.
+ */
+public class RenderScheduler {
+    private static final Logger LOGGER = Logger.getLogger(RenderScheduler.class.getName());
+
+    private static final RenderScheduler INSTANCE = new RenderScheduler();
+
+    private final Timer killTimer = new Timer("dot render timeout", true);
+    private int running = 0;
+    private int waiting = 0;
+
+    /**
+     * Thrown when a render is rejected because too many renders are waiting
+     */
+    public static class RenderRejectedException extends IOException {
+        public RenderRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when dot fails to render a graph, so its output must not be sent or cached
+     */
+    public static class RenderFailedException extends IOException {
+        public RenderFailedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Thrown when dot was killed since it exceeded the render timeout
+     */
+    public static class RenderTimeoutException extends RenderFailedException {
+        public RenderTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Kills a process which exceeds the render timeout and remembers whether it did
+     */
+    public static class Kill extends TimerTask {
+        private final Proc proc;
+        private final long timeoutMillis;
+        private volatile boolean killed = false;
+
+        private Kill(Proc proc, long timeoutMillis) {
+            this.proc = proc;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (proc.isAlive()) {
+                    killed = true;
+                    LOGGER.warning("Killing dot since it did not finish within " + timeoutMillis + "ms");
+                    proc.kill();
+                }
+            } catch (IOException e) {
+                LOGGER.warning("Could not kill dot:" + e);
+            } catch (InterruptedException e) {
+                LOGGER.warning("Interrupted while killing dot:" + e);
+            }
+        }
+
+        /**
+         * @return whether the process was killed, so its output is incomplete
+         */
+        public boolean isKilled() {
+            return killed;
+        }
+    }
+
+    /**
+     * @return the scheduler shared by all dependency graph actions
+     */
+    public static RenderScheduler get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Waits until less than maxConcurrent renders are running and reserves a slot,
+     * which has to be given back by {@link #release()}
+     * @param maxConcurrent the maximum number of running renders
+     * @param maxQueued the maximum number of waiting renders
+     * @param timeoutMillis the maximum time to wait
+     * @throws RenderRejectedException if the queue is full or no slot became free in time
+     */
+    public synchronized void acquire(int maxConcurrent, int maxQueued, long timeoutMillis)
+            throws InterruptedException, RenderRejectedException {
+        if (running < maxConcurrent) {
+            running++;
+            return;
+        }
+        if (waiting >= maxQueued) {
+            throw new RenderRejectedException(waiting + " renders are already waiting for dot");
+        }
+        waiting++;
+        try {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (running >= maxConcurrent) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new RenderRejectedException("Waited " + timeoutMillis + "ms for dot");
+                }
+                wait(remaining);
+            }
+            running++;
+        } finally {
+            waiting--;
+        }
+    }
+
+    /**
+     * Gives back a slot reserved by {@link #acquire(int, int, long)}
+     */
+    public synchronized void release() {
+        running--;
+        notifyAll();
+    }
+
+    /**
+     * Kills the process if it is still running after the timeout
+     * @return task to cancel as soon as the process finished
+     */
+    public Kill killAfter(Proc proc, long timeoutMillis) {
+        Kill kill = new Kill(proc, timeoutMillis);
+        killTimer.schedule(kill, timeoutMillis);
+        return kill;
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getWaiting() {
+        return waiting;
+    }
+
+}
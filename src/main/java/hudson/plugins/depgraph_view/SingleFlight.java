@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.util.IOException2;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs a computation only once for concurrent callers with the same key.
+ * The first caller computes the result in its own thread, the others wait
+ * for it and share the result or the exception.
+ * Later callers start a new computation once the running one is finished.
+ */
+public class SingleFlight<T> {
+    private final ConcurrentMap<String, FutureTask<T>> flights = new ConcurrentHashMap<String, FutureTask<T>>();
+
+    /**
+     * @param key identifies the result, so equal keys must lead to equal results
+     * @return the result of the computation, which may have been started by another caller
+     */
+    public T execute(String key, Callable<T> computation) throws IOException {
+        FutureTask<T> task = new FutureTask<T>(computation);
+        FutureTask<T> running = flights.putIfAbsent(key, task);
+        if (running == null) {
+            try {
+                task.run();
+            } finally {
+                flights.remove(key, task);
+            }
+            running = task;
+        } else {
+            GraphStatistics.get().increment(GraphStatistics.COALESCED);
+        }
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            InterruptedIOException interrupted = new InterruptedIOException("Interrupted while waiting for " + key);
+            interrupted.initCause(e);
+            throw interrupted;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException2(cause);
+        }
+    }
+}
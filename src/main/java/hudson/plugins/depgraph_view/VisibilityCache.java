@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.AbstractProject;
+import hudson.model.Hudson;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.User;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which projects of a {@link DependencyGraphIndex} a user may read,
+ * so the ACL of each project is evaluated at most once per user and snapshot
+ * of the dependency graph.
+ * All caches are dropped when the configuration of Hudson, an item or a user
+ * changes, since the permissions may have changed as well.
+ */
+public class VisibilityCache {
+    /**
+     * Maximum number of users for which the visibility is cached
+     */
+    private static final int MAX_USERS = Integer.getInteger(VisibilityCache.class.getName() + ".maxUsers", 1000);
+
+    private static final ConcurrentMap<String, VisibilityCache> caches = new ConcurrentHashMap<String, VisibilityCache>();
+    // Increased whenever the caches are dropped
+    private static final AtomicLong epoch = new AtomicLong();
+
+    private final DependencyGraphIndex index;
+    private final BitSet checked;
+    private final BitSet readable;
+
+    private VisibilityCache(DependencyGraphIndex index) {
+        this.index = index;
+        this.checked = new BitSet(index.getProjectCount());
+        this.readable = new BitSet(index.getProjectCount());
+    }
+
+    /**
+     * @return the cache of the user of the current request for the given snapshot
+     */
+    public static VisibilityCache forCurrentUser(DependencyGraphIndex index) {
+        String user = Hudson.getAuthentication().getName();
+        VisibilityCache cache = caches.get(user);
+        if (cache == null || cache.index != index) {
+            if (caches.size() >= MAX_USERS) {
+                caches.clear();
+            }
+            cache = new VisibilityCache(index);
+            caches.put(user, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * @return a cache in which every project of the snapshot is readable, without looking at permissions
+     */
+    static VisibilityCache allReadable(DependencyGraphIndex index) {
+        VisibilityCache cache = new VisibilityCache(index);
+        cache.checked.set(0, index.getProjectCount());
+        cache.readable.set(0, index.getProjectCount());
+        return cache;
+    }
+
+    /**
+     * @return a cache in which only the given projects are readable, without looking at permissions
+     */
+    static VisibilityCache readableOnly(DependencyGraphIndex index, Collection<? extends AbstractProject<?,?>> projects) {
+        VisibilityCache cache = new VisibilityCache(index);
+        cache.checked.set(0, index.getProjectCount());
+        for (AbstractProject<?,?> project : projects) {
+            int id = index.getId(project);
+            if (id >= 0) {
+                cache.readable.set(id);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Drops the caches of all users
+     */
+    public static void invalidateAll() {
+        epoch.incrementAndGet();
+        caches.clear();
+    }
+
+    /**
+     * @return number which changes whenever permissions or projects may have changed
+     */
+    public static long getEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * @param id the id of the project in the snapshot
+     * @return whether the current user has read permission on the project
+     */
+    public synchronized boolean isReadable(int id) {
+        if (!checked.get(id)) {
+            if (index.getProject(id).hasPermission(Item.READ)) {
+                readable.set(id);
+            }
+            checked.set(id);
+        }
+        return readable.get(id);
+    }
+
+    /**
+     * Invalidates the caches when the configuration of Hudson, an item, a user
+     * or of this plugin is saved
+     */
+    @Extension
+    public static class SaveableListenerImpl extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Hudson || o instanceof Item || o instanceof User
+                    || o instanceof DependencyGraphProperty.DescriptorImpl) {
+                invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * Invalidates the caches when items are created, renamed or deleted
+     */
+    @Extension
+    public static class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onCreated(Item item) {
+            invalidateAll();
+        }
+
+        @Override
+        public void onRenamed(Item item, String oldName, String newName) {
+            invalidateAll();
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            invalidateAll();
+        }
+    }
+
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/*
+ * Loads rendered graph images without blocking a request thread of Hudson.
+ * Lays out and draws the dependency graph in the browser, from the json
+ * written by AbstractDependencyGraphAction.generateJson. Uses the same
+ * layered layout as the renderer inside Hudson: cycles are broken by
+ * reversing back edges, nodes are layered by the longest path from the
+ * sources and the layers are ordered by barycenter sweeps.
+ */
+var depgraph = (function() {
+    var SVG_NS = "http://www.w3.org/2000/svg";
+    var XLINK_NS = "http://www.w3.org/1999/xlink";
+    var NODE_HEIGHT = 36, RANK_SEP = 50, NODE_SEP = 20, CHAR_WIDTH = 7, MARGIN = 10, SWEEPS = 24;
+    // further lines of the label and the second border of summary nodes, like peripheries=2 of dot
+    var LINE_HEIGHT = 16, PERIPHERY_GAP = 4;
+
+    // the names of the projects of a summary node, or the name of the project
+    function labelOf(node) {
+        return node.members || [node.name];
+    }
+
+    function layout(graph) {
+        var n = graph.nodes.length, i, e;
+        var out = [], state = [], layer = [], width = [], height = [];
+        for (i = 0; i < n; i++) {
+            out.push([]);
+            state.push(0);
+            layer.push(0);
+            var lines = labelOf(graph.nodes[i]), longest = 0;
+            for (var line = 0; line < lines.length; line++) {
+                longest = Math.max(longest, lines[line].length);
+            }
+            var gaps = graph.nodes[i].members ? 2 * PERIPHERY_GAP : 0;
+            width.push(Math.max(40, longest * CHAR_WIDTH + 20) + gaps);
+            height.push(NODE_HEIGHT + (lines.length - 1) * LINE_HEIGHT + gaps);
+        }
+        var edges = [];
+        for (e = 0; e < graph.edges.length; e++) {
+            var edge = {from: graph.edges[e][0], to: graph.edges[e][1], reversed: false};
+            if (edge.from != edge.to) {
+                edges.push(edge);
+                out[edge.from].push(edge);
+            }
+        }
+        // break cycles by reversing the back edges of a depth first search
+        for (i = 0; i < n; i++) {
+            if (state[i] == 0) {
+                var stack = [[i, 0]];
+                state[i] = 1;
+                while (stack.length > 0) {
+                    var top = stack[stack.length - 1];
+                    if (top[1] < out[top[0]].length) {
+                        var next = out[top[0]][top[1]++];
+                        if (state[next.to] == 1) {
+                            next.reversed = true;
+                        } else if (state[next.to] == 0) {
+                            state[next.to] = 1;
+                            stack.push([next.to, 0]);
+                        }
+                    } else {
+                        state[top[0]] = 2;
+                        stack.pop();
+                    }
+                }
+            }
+        }
+        // longest path layering in topological order
+        var down = [], inDegree = [];
+        for (i = 0; i < n; i++) {
+            down.push([]);
+            inDegree.push(0);
+        }
+        for (e = 0; e < edges.length; e++) {
+            edges[e].upper = edges[e].reversed ? edges[e].to : edges[e].from;
+            edges[e].lower = edges[e].reversed ? edges[e].from : edges[e].to;
+            down[edges[e].upper].push(edges[e].lower);
+            inDegree[edges[e].lower]++;
+        }
+        var queue = [];
+        for (i = 0; i < n; i++) {
+            if (inDegree[i] == 0) {
+                queue.push(i);
+            }
+        }
+        for (var head = 0; head < queue.length; head++) {
+            var node = queue[head];
+            for (var k = 0; k < down[node].length; k++) {
+                var target = down[node][k];
+                layer[target] = Math.max(layer[target], layer[node] + 1);
+                if (--inDegree[target] == 0) {
+                    queue.push(target);
+                }
+            }
+        }
+        // split long edges by dummy nodes
+        var upper = [], lower = [];
+        for (i = 0; i < n; i++) {
+            upper.push([]);
+            lower.push([]);
+        }
+        for (e = 0; e < edges.length; e++) {
+            var chain = [edges[e].upper];
+            for (var l = layer[edges[e].upper] + 1; l < layer[edges[e].lower]; l++) {
+                layer.push(l);
+                width.push(10);
+                height.push(NODE_HEIGHT);
+                upper.push([]);
+                lower.push([]);
+                chain.push(layer.length - 1);
+            }
+            chain.push(edges[e].lower);
+            for (k = 0; k + 1 < chain.length; k++) {
+                lower[chain[k]].push(chain[k + 1]);
+                upper[chain[k + 1]].push(chain[k]);
+            }
+            edges[e].chain = chain;
+        }
+        var layers = [];
+        for (i = 0; i < layer.length; i++) {
+            while (layers.length <= layer[i]) {
+                layers.push([]);
+            }
+            layers[layer[i]].push(i);
+        }
+        // order the layers by the barycenters of the neighbours
+        var position = [];
+        function updatePositions(nodes) {
+            for (var p = 0; p < nodes.length; p++) {
+                position[nodes[p]] = p;
+            }
+        }
+        function mean(nodes, values, defaultValue) {
+            if (nodes.length == 0) {
+                return defaultValue;
+            }
+            var sum = 0;
+            for (var m = 0; m < nodes.length; m++) {
+                sum += values[nodes[m]];
+            }
+            return sum / nodes.length;
+        }
+        for (l = 0; l < layers.length; l++) {
+            updatePositions(layers[l]);
+        }
+        for (var sweep = 0; sweep < SWEEPS; sweep++) {
+            var downwards = sweep % 2 == 0;
+            for (i = 1; i < layers.length; i++) {
+                var current = layers[downwards ? i : layers.length - 1 - i];
+                var neighbours = downwards ? upper : lower;
+                var barycenter = {};
+                for (k = 0; k < current.length; k++) {
+                    barycenter[current[k]] = mean(neighbours[current[k]], position, position[current[k]]);
+                }
+                current.sort(function(a, b) {
+                    return barycenter[a] - barycenter[b] || position[a] - position[b];
+                });
+                updatePositions(current);
+            }
+        }
+        // place the nodes close to the mean position of their neighbours
+        var x = [];
+        for (l = 0; l < layers.length; l++) {
+            var cursor = 0;
+            for (k = 0; k < layers[l].length; k++) {
+                x[layers[l][k]] = cursor + width[layers[l][k]] / 2;
+                cursor += width[layers[l][k]] + NODE_SEP;
+            }
+        }
+        function gap(nodes, g) {
+            return (width[nodes[g]] + width[nodes[g + 1]]) / 2 + NODE_SEP;
+        }
+        for (sweep = 0; sweep < 8; sweep++) {
+            downwards = sweep % 2 == 0;
+            for (i = 1; i < layers.length; i++) {
+                current = layers[downwards ? i : layers.length - 1 - i];
+                neighbours = downwards ? upper : lower;
+                var left = [], right = [], size = current.length;
+                for (k = 0; k < size; k++) {
+                    var desired = mean(neighbours[current[k]], x, x[current[k]]);
+                    left[k] = k == 0 ? desired : Math.max(desired, left[k - 1] + gap(current, k - 1));
+                    right[k] = desired;
+                }
+                for (k = size - 2; k >= 0; k--) {
+                    right[k] = Math.min(right[k], right[k + 1] - gap(current, k));
+                }
+                for (k = 0; k < size; k++) {
+                    x[current[k]] = (left[k] + right[k]) / 2;
+                }
+            }
+        }
+        var minX = Infinity, maxX = 0;
+        for (i = 0; i < layer.length; i++) {
+            minX = Math.min(minX, x[i] - width[i] / 2);
+        }
+        for (i = 0; i < layer.length; i++) {
+            x[i] += MARGIN - minX;
+            maxX = Math.max(maxX, x[i] + width[i] / 2);
+        }
+        // each layer is as high as its highest node
+        var layerY = [], top = MARGIN;
+        for (l = 0; l < layers.length; l++) {
+            var layerHeight = NODE_HEIGHT;
+            for (k = 0; k < layers[l].length; k++) {
+                layerHeight = Math.max(layerHeight, height[layers[l][k]]);
+            }
+            layerY.push(top + layerHeight / 2);
+            top += layerHeight + RANK_SEP;
+        }
+        return {
+            x: x, width: width, height: height, edges: edges,
+            y: function(node) {
+                return layerY[layer[node]];
+            },
+            totalWidth: maxX + MARGIN,
+            totalHeight: top - (layers.length > 0 ? RANK_SEP : 0) + MARGIN
+        };
+    }
+
+    function element(name, attributes) {
+        var result = document.createElementNS(SVG_NS, name);
+        for (var attribute in attributes) {
+            result.setAttribute(attribute, attributes[attribute]);
+        }
+        return result;
+    }
+
+    function draw(graph, container) {
+        var result = layout(graph);
+        var svg = element("svg", {width: result.totalWidth, height: result.totalHeight});
+        var defs = element("defs", {});
+        var marker = element("marker", {id: "depgraph-arrow", markerWidth: 8, markerHeight: 8, refX: 8, refY: 4,
+            orient: "auto", markerUnits: "userSpaceOnUse"});
+        marker.appendChild(element("path", {d: "M0,0 L8,4 L0,8 z"}));
+        defs.appendChild(marker);
+        svg.appendChild(defs);
+        for (var e = 0; e < result.edges.length; e++) {
+            var chain = result.edges[e].chain, points = [];
+            for (var k = 0; k < chain.length; k++) {
+                var y = result.y(chain[k]);
+                if (k == 0) {
+                    y += result.height[chain[k]] / 2;
+                } else if (k == chain.length - 1) {
+                    y -= result.height[chain[k]] / 2;
+                }
+                points.push(result.x[chain[k]] + "," + y);
+            }
+            if (result.edges[e].reversed) {
+                points.reverse();
+            }
+            svg.appendChild(element("polyline", {fill: "none", stroke: "black",
+                "marker-end": "url(#depgraph-arrow)", points: points.join(" ")}));
+        }
+        for (var i = 0; i < graph.nodes.length; i++) {
+            var link = element("a", {});
+            link.setAttributeNS(XLINK_NS, "xlink:href", graph.nodes[i].url);
+            var left = result.x[i] - result.width[i] / 2, top = result.y(i) - result.height[i] / 2;
+            link.appendChild(element("rect", {fill: "white", stroke: "black", rx: 8, ry: 8,
+                x: left, y: top, width: result.width[i], height: result.height[i]}));
+            if (graph.nodes[i].members) {
+                link.appendChild(element("rect", {fill: "white", stroke: "black", rx: 8, ry: 8,
+                    x: left + PERIPHERY_GAP, y: top + PERIPHERY_GAP,
+                    width: result.width[i] - 2 * PERIPHERY_GAP, height: result.height[i] - 2 * PERIPHERY_GAP}));
+            }
+            var lines = labelOf(graph.nodes[i]);
+            for (var line = 0; line < lines.length; line++) {
+                var text = element("text", {"text-anchor": "middle", "font-family": "sans-serif", "font-size": 12,
+                    x: result.x[i], y: result.y(i) + (line - (lines.length - 1) / 2) * LINE_HEIGHT + 4});
+                text.appendChild(document.createTextNode(lines[line]));
+                link.appendChild(text);
+            }
+            svg.appendChild(link);
+        }
+        container.innerHTML = "";
+        container.appendChild(svg);
+    }
+
+    // images of one page which are rendered at the same time
+    var MAX_LOADING_IMAGES = 3;
+    // seconds to wait after Hudson rejected a render, without a Retry-After header
+    var RETRY_AFTER_SECONDS = 5;
+
+    /**
+     * Asks for the url with async=true until the output is ready, so no request thread of
+     * Hudson waits for it. A render which Hudson rejected is asked for again after the
+     * Retry-After header.
+     * @param done called with the request of the final answer
+     * @return the url with async=true
+     */
+    function fetchAsync(url, done) {
+        var asyncUrl = url + (url.indexOf("?") < 0 ? "?" : "&") + "async=true";
+        function poll() {
+            var request = new XMLHttpRequest();
+            request.open("GET", asyncUrl, true);
+            request.onreadystatechange = function() {
+                if (request.readyState == 4) {
+                    var retryAfter = parseInt(request.getResponseHeader("Retry-After"), 10);
+                    if (request.status == 202) {
+                        setTimeout(poll, (retryAfter || 1) * 1000);
+                    } else if (request.status == 503) {
+                        setTimeout(poll, (retryAfter || RETRY_AFTER_SECONDS) * 1000);
+                    } else {
+                        done(request);
+                    }
+                }
+            };
+            request.send(null);
+        }
+        poll();
+        return asyncUrl;
+    }
+
+    var mapCount = 0;
+
+    /**
+     * Loads the image map like the lazymap attribute of Hudson does
+     */
+    function loadMap(image) {
+        fetchAsync(image.getAttribute("data-map"), function(request) {
+            if (request.status == 200) {
+                var div = document.createElement("div");
+                document.body.appendChild(div);
+                div.innerHTML = request.responseText;
+                var map = div.getElementsByTagName("map")[0];
+                if (map) {
+                    var id = "depgraph-map" + (mapCount++);
+                    map.setAttribute("name", id);
+                    image.setAttribute("usemap", "#" + id);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the image when it is rendered and then its image map. Errors are shown
+     * instead of the image.
+     * @param done called when the image is shown or failed
+     */
+    function loadImage(image, done) {
+        var asyncSrc = fetchAsync(image.getAttribute("data-src"), function(request) {
+            if (request.status == 200) {
+                // the browser has the image with its entity tag now
+                image.src = asyncSrc;
+                loadMap(image);
+            } else {
+                image.parentNode.replaceChild(
+                        document.createTextNode(request.status + " " + request.statusText), image);
+            }
+            done();
+        });
+    }
+    return {
+        /**
+         * Loads the json from the url given by the data-src attribute of the container
+         * and draws the graph into the container
+         */
+        render: function(container) {
+            fetchAsync(container.getAttribute("data-src"), function(request) {
+                if (request.status == 200) {
+                    draw(JSON.parse(request.responseText), container);
+                } else {
+                    container.innerHTML = "";
+                    container.appendChild(document.createTextNode(request.status + " " + request.statusText));
+                }
+            });
+        },
+
+        /**
+         * Asks for the image given by the data-src attribute with async=true until it is
+         * rendered, so no request thread of Hudson waits for dot, and then shows it.
+         * The image map given by the data-map attribute is polled afterwards, it is
+         * usually rendered together with the image already.
+         */
+        loadImage: function(image) {
+            loadImage(image, function() {});
+        },
+
+        /**
+         * Loads the images with the given class like loadImage, only a few at a time,
+         * so a page of many images does not fill the render queue of Hudson
+         */
+        loadImages: function(className) {
+            // a copy, since failed images are replaced and leave the live collection
+            var images = [], found = document.getElementsByClassName(className), next = 0;
+            for (var k = 0; k < found.length; k++) {
+                images.push(found[k]);
+            }
+            function loadNext() {
+                if (next < images.length) {
+                    loadImage(images[next++], loadNext);
+                }
+            }
+            for (var i = 0; i < MAX_LOADING_IMAGES; i++) {
+                loadNext();
+            }
+        }
+    };
+})();
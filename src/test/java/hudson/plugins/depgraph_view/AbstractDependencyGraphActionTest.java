@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractModelObject;
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph.Dependency;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class AbstractDependencyGraphActionTest extends TestCase {
+
+    public void testDotTextOrdersNodesAndEdges() throws IOException {
+        TestGraph graph = new TestGraph("c->a", "b->a", "a->d");
+        graph.project("lonely");
+        String dot = dotText(graph.allProjects(), graph.allDependencies(),
+                Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap());
+        // ids in the order of the names, projects without dependencies first,
+        // edges by downstream and then upstream project
+        assertEquals("digraph {\n"
+                + "node [shape=box, style=rounded];\n"
+                + "subgraph clusterdepgraph {\n"
+                + "n4 [label=\"lonely\", href=\"http://hudson/job/lonely/\"];\n"
+                + "n0 [label=\"a\", href=\"http://hudson/job/a/\"];\n"
+                + "n1 [label=\"b\", href=\"http://hudson/job/b/\"];\n"
+                + "n2 [label=\"c\", href=\"http://hudson/job/c/\"];\n"
+                + "n3 [label=\"d\", href=\"http://hudson/job/d/\"];\n"
+                + "n1 -> n0;\n"
+                + "n2 -> n0;\n"
+                + "n0 -> n3;\n"
+                + "color=white;\n}\n"
+                + "}", dot);
+    }
+
+    public void testDotTextWritesEachEdgeOnce() throws IOException {
+        TestGraph graph = new TestGraph("a->b");
+        Set<Dependency> deps = new HashSet<Dependency>(graph.allDependencies());
+        // a dependency of another class is never equal to the plain one, like the groups of Hudson
+        deps.add(new Dependency(graph.project("a"), graph.project("b")) {
+        });
+        assertEquals(2, deps.size());
+        String dot = dotText(graph.allProjects(), deps,
+                Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap());
+        assertEquals(dot.indexOf("n0 -> n1;"), dot.lastIndexOf("n0 -> n1;"));
+        assertEquals(dot.indexOf("n0 ["), dot.lastIndexOf("n0 ["));
+    }
+
+    public void testDotTextIgnoresEdgesToOtherProjects() throws IOException {
+        TestGraph graph = new TestGraph("a->b", "b->c");
+        String dot = dotText(graph.projects("a", "b"), graph.allDependencies(),
+                Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>emptyMap());
+        assertTrue(dot, dot.contains("n0 -> n1;"));
+        assertFalse(dot, dot.contains("n2"));
+    }
+
+    public void testDotTextLabelsSummaryNodesWithTheirProjects() throws IOException {
+        TestGraph graph = new TestGraph("a->b", "b->a", "x\"y->a");
+        List<AbstractProject<?,?>> members = new ArrayList<AbstractProject<?, ?>>(graph.projects("a"));
+        members.add(graph.project("b"));
+        String dot = dotText(graph.projects("a", "x\"y"), graph.allDependencies(),
+                Collections.<AbstractProject<?,?>, List<AbstractProject<?,?>>>singletonMap(graph.project("a"), members));
+        assertTrue(dot, dot.contains("n0 [label=\"a\\nb\", href=\"http://hudson/job/a/\", peripheries=2];\n"));
+        assertTrue(dot, dot.contains("n1 [label=\"x\\\"y\""));
+        assertTrue(dot, dot.contains("n1 -> n0;"));
+    }
+
+    public void testMatchesEtag() {
+        String etag = "\"abc\"";
+        assertFalse(AbstractDependencyGraphAction.matchesEtag(null, etag));
+        assertFalse(AbstractDependencyGraphAction.matchesEtag("", etag));
+        assertTrue(AbstractDependencyGraphAction.matchesEtag("\"abc\"", etag));
+        assertTrue(AbstractDependencyGraphAction.matchesEtag("\"old\", \"abc\"", etag));
+        assertTrue(AbstractDependencyGraphAction.matchesEtag("*", etag));
+        assertFalse(AbstractDependencyGraphAction.matchesEtag("\"old\"", etag));
+        assertFalse(AbstractDependencyGraphAction.matchesEtag("abc", etag));
+    }
+
+    public void testAcceptsGzip() {
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip(null));
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip(""));
+        assertTrue(AbstractDependencyGraphAction.acceptsGzip("gzip"));
+        assertTrue(AbstractDependencyGraphAction.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(AbstractDependencyGraphAction.acceptsGzip("x-gzip"));
+        assertTrue(AbstractDependencyGraphAction.acceptsGzip("*"));
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip("deflate, br"));
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip("gzip;q=0"));
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip("gzip; q=0.0, identity"));
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip("gzip;q=x"));
+        assertFalse(AbstractDependencyGraphAction.acceptsGzip("gzipped"));
+    }
+
+    public void testCanonicalQueryDropsAsync() {
+        assertEquals("", AbstractDependencyGraphAction.getCanonicalQuery(null));
+        assertEquals("", AbstractDependencyGraphAction.getCanonicalQuery(""));
+        assertEquals("", AbstractDependencyGraphAction.getCanonicalQuery("async=true"));
+        assertEquals("depth=2", AbstractDependencyGraphAction.getCanonicalQuery("async=true&depth=2"));
+        assertEquals("depth=2", AbstractDependencyGraphAction.getCanonicalQuery("depth=2&async=true"));
+        assertEquals("asynchronous=1", AbstractDependencyGraphAction.getCanonicalQuery("asynchronous=1&async"));
+    }
+
+    public void testCanonicalQuerySortsTheParameters() {
+        assertEquals("collapse=true&depth=2&reduce=true",
+                AbstractDependencyGraphAction.getCanonicalQuery("reduce=true&depth=2&&collapse=true"));
+        assertEquals(AbstractDependencyGraphAction.getCanonicalQuery("tile=1&reduce=false"),
+                AbstractDependencyGraphAction.getCanonicalQuery("async=true&reduce=false&tile=1"));
+    }
+
+    private static String dotText(Set<AbstractProject<?,?>> projects, Set<Dependency> deps,
+                                  Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed) throws IOException {
+        StringWriter writer = new StringWriter();
+        new TestAction().generateDotText(projects, deps, collapsed, "http://hudson/", writer);
+        return writer.toString();
+    }
+
+    private static class TestAction extends AbstractDependencyGraphAction {
+        @Override
+        protected Collection<? extends AbstractProject<?, ?>> getProjectsForDepgraph() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public String getTitle() {
+            return "Test";
+        }
+
+        @Override
+        public AbstractModelObject getParentObject() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import junit.framework.TestCase;
+
+import static hudson.plugins.depgraph_view.CalculateDeps.Direction.BOTH;
+import static hudson.plugins.depgraph_view.CalculateDeps.Direction.DOWNSTREAM;
+import static hudson.plugins.depgraph_view.CalculateDeps.Direction.UPSTREAM;
+import static hudson.plugins.depgraph_view.CalculateDeps.UNLIMITED_DEPTH;
+import static hudson.plugins.depgraph_view.TestGraph.edges;
+import static hudson.plugins.depgraph_view.TestGraph.names;
+import static hudson.plugins.depgraph_view.TestGraph.set;
+
+public class CalculateDepsTest extends TestCase {
+    // a -> b -> c -> d with x -> b and c -> y, and the separate component p -> q
+    private final TestGraph graph = new TestGraph("a->b", "b->c", "c->d", "x->b", "c->y", "p->q");
+
+    public void testIndexFindsConnectedComponents() {
+        DependencyGraphIndex index = graph.index();
+        int component = index.getComponent(graph.project("a"));
+        for (String name : new String[]{"b", "c", "d", "x", "y"}) {
+            assertEquals(component, index.getComponent(graph.project(name)));
+        }
+        assertFalse(component == index.getComponent(graph.project("p")));
+        assertEquals(6, index.getComponentSize(component));
+        assertEquals(set("a", "b", "c", "d", "x", "y"), names(index.getProjects(component)));
+        assertEquals(set("a->b", "b->c", "c->d", "x->b", "c->y"), edges(index.getDependencies(component)));
+    }
+
+    public void testUnlimitedDepthInBothDirectionsIsTheWholeComponent() {
+        CalculateDeps deps = graph.calculate(UNLIMITED_DEPTH, BOTH, "b");
+        assertEquals(set("a", "b", "c", "d", "x", "y"), names(deps.getProjects()));
+        assertEquals(set("a->b", "b->c", "c->d", "x->b", "c->y"), edges(deps.getDependencies()));
+    }
+
+    public void testStartsInSeveralComponents() {
+        CalculateDeps deps = graph.calculate(UNLIMITED_DEPTH, BOTH, "d", "q");
+        assertEquals(set("a", "b", "c", "d", "x", "y", "p", "q"), names(deps.getProjects()));
+        assertTrue(edges(deps.getDependencies()).contains("p->q"));
+    }
+
+    public void testDepthLimitsTheDistanceFromTheStart() {
+        CalculateDeps deps = graph.calculate(1, BOTH, "b");
+        assertEquals(set("a", "b", "c", "x"), names(deps.getProjects()));
+        assertEquals(set("a->b", "x->b", "b->c"), edges(deps.getDependencies()));
+
+        deps = graph.calculate(2, BOTH, "b");
+        assertEquals(set("a", "b", "c", "d", "x", "y"), names(deps.getProjects()));
+    }
+
+    public void testDepthZeroIsOnlyTheStart() {
+        CalculateDeps deps = graph.calculate(0, BOTH, "b");
+        assertEquals(set("b"), names(deps.getProjects()));
+        assertTrue(deps.getDependencies().isEmpty());
+    }
+
+    public void testDownstreamOnlyFollowsDownstreamEdges() {
+        CalculateDeps deps = graph.calculate(UNLIMITED_DEPTH, DOWNSTREAM, "b");
+        assertEquals(set("b", "c", "d", "y"), names(deps.getProjects()));
+        assertEquals(set("b->c", "c->d", "c->y"), edges(deps.getDependencies()));
+
+        deps = graph.calculate(1, DOWNSTREAM, "b");
+        assertEquals(set("b", "c"), names(deps.getProjects()));
+        assertEquals(set("b->c"), edges(deps.getDependencies()));
+    }
+
+    public void testUpstreamOnlyFollowsUpstreamEdges() {
+        CalculateDeps deps = graph.calculate(UNLIMITED_DEPTH, UPSTREAM, "c");
+        assertEquals(set("a", "b", "c", "x"), names(deps.getProjects()));
+        assertEquals(set("a->b", "b->c", "x->b"), edges(deps.getDependencies()));
+    }
+
+    public void testDirectionDoesNotTurnAround() {
+        // x is upstream of b, which is upstream of c, but not downstream of anything reachable from c
+        CalculateDeps deps = graph.calculate(UNLIMITED_DEPTH, DOWNSTREAM, "x");
+        assertEquals(set("x", "b", "c", "d", "y"), names(deps.getProjects()));
+        assertFalse(names(deps.getProjects()).contains("a"));
+    }
+}
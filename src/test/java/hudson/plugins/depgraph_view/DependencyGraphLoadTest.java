@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import com.gargoylesoftware.htmlunit.Page;
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.FreeStyleProject;
+import hudson.model.Hudson;
+import hudson.model.Item;
+import hudson.model.Result;
+import hudson.security.AuthorizationMatrixProperty;
+import hudson.security.Permission;
+import hudson.security.ProjectMatrixAuthorizationStrategy;
+import hudson.tasks.BuildTrigger;
+import org.apache.commons.io.FileUtils;
+import org.jvnet.hudson.test.HudsonTestCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires concurrent graph requests of several users with different read permissions
+ * at a Hudson with many interlinked jobs and reports throughput, latency, heap growth
+ * and the number of started dot processes. dot is replaced by a stub, so the numbers
+ * show the costs of the plugin itself.
+ * Only runs in the load-test profile: mvn test -Pload-test
+ * The size of the load is configured by the system properties depgraph.loadTest.jobs,
+ * .users, .threads and .requests. depgraph.loadTest.dot replaces the generated stub
+ * by another executable, depgraph.loadTest.dotSeconds lets the generated stub sleep.
+ */
+public class DependencyGraphLoadTest extends HudsonTestCase {
+    // Jobs of a block form one connected component
+    private static final int BLOCK_SIZE = 100;
+
+    private static final String[] GRAPH_TYPES = {"png", "map", "gv"};
+
+    private final int jobCount = Integer.getInteger("depgraph.loadTest.jobs", 2000);
+    private final int userCount = Integer.getInteger("depgraph.loadTest.users", 4);
+    private final int threadCount = Integer.getInteger("depgraph.loadTest.threads", 16);
+    private final int requestCount = Integer.getInteger("depgraph.loadTest.requests", 2000);
+
+    private File dotRuns;
+
+    public void testConcurrentGraphRequests() throws Exception {
+        createJobs();
+        String dot = Util.fixEmptyAndTrim(System.getProperty("depgraph.loadTest.dot"));
+        hudson.getDescriptorByType(DependencyGraphProperty.DescriptorImpl.class)
+                .setDotExe(dot != null ? dot : createDotStub().getAbsolutePath());
+
+        final List<WebClient> clients = new ArrayList<WebClient>();
+        for (int i = 0; i < threadCount; i++) {
+            WebClient client = createWebClient();
+            client.setJavaScriptEnabled(false);
+            client.setThrowExceptionOnFailingStatusCode(false);
+            client.login(userName(i % userCount));
+            clients.add(client);
+        }
+
+        GraphStatistics.get().reset();
+        long heapBefore = usedHeap();
+        final long[] latencies = new long[requestCount];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch done = new CountDownLatch(threadCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < threadCount; i++) {
+            final int user = i % userCount;
+            final WebClient client = clients.get(i);
+            final Random random = new Random(i);
+            new Thread("depgraph-view load " + i) {
+                @Override
+                public void run() {
+                    try {
+                        for (int request = next.getAndIncrement(); request < requestCount;
+                             request = next.getAndIncrement()) {
+                            String url = randomGraphUrl(random, user);
+                            long requestStart = System.nanoTime();
+                            try {
+                                Page page = client.getPage(new URL(getURL(), url));
+                                int status = page.getWebResponse().getStatusCode();
+                                if (status == 503) {
+                                    rejected.incrementAndGet();
+                                } else if (status >= 400) {
+                                    failures.add(url + ": " + status);
+                                }
+                            } catch (IOException e) {
+                                failures.add(url + ": " + e);
+                            }
+                            latencies[request] = System.nanoTime() - requestStart;
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+
+        Arrays.sort(latencies);
+        System.out.println("depgraph-view load test: " + jobCount + " jobs, " + userCount + " users, "
+                + threadCount + " threads, " + requestCount + " requests");
+        System.out.println("throughput: " + (requestCount * 1000000000L / elapsed) + " requests/s");
+        System.out.println("latency p50: " + percentile(latencies, 50) / 1000 + " us, p99: "
+                + percentile(latencies, 99) / 1000 + " us");
+        System.out.println("heap growth: " + (heapAfter - heapBefore) / 1024 + " KiB");
+        if (dot == null) {
+            System.out.println("dot processes: " + FileUtils.readLines(dotRuns).size());
+        }
+        System.out.println("rejected: " + rejected.get() + ", failed: " + failures.size());
+        System.out.println(GraphStatistics.get().toJson());
+        assertTrue(failures.toString(), failures.isEmpty());
+    }
+
+    /**
+     * Creates the jobs in blocks, each job triggering the next one and another one
+     * further down in its block. Users are allowed to read every (user + 1)th job,
+     * except for the first user who reads all jobs.
+     */
+    private void createJobs() throws IOException {
+        hudson.setSecurityRealm(createDummySecurityRealm());
+        ProjectMatrixAuthorizationStrategy authorization = new ProjectMatrixAuthorizationStrategy();
+        authorization.add(Hudson.READ, "authenticated");
+        authorization.add(Item.READ, userName(0));
+        hudson.setAuthorizationStrategy(authorization);
+        List<FreeStyleProject> jobs = new ArrayList<FreeStyleProject>();
+        for (int i = 0; i < jobCount; i++) {
+            FreeStyleProject job = createFreeStyleProject(jobName(i));
+            Map<Permission, Set<String>> permissions = new HashMap<Permission, Set<String>>();
+            Set<String> readers = new HashSet<String>();
+            for (int user = 1; user < userCount; user++) {
+                if (i % (user + 1) == 0) {
+                    readers.add(userName(user));
+                }
+            }
+            permissions.put(Item.READ, readers);
+            job.addProperty(new AuthorizationMatrixProperty(permissions));
+            jobs.add(job);
+        }
+        for (int i = 0; i < jobCount; i++) {
+            List<FreeStyleProject> children = new ArrayList<FreeStyleProject>();
+            if ((i + 1) % BLOCK_SIZE != 0 && i + 1 < jobCount) {
+                children.add(jobs.get(i + 1));
+            }
+            if ((i + 7) / BLOCK_SIZE == i / BLOCK_SIZE && i + 7 < jobCount) {
+                children.add(jobs.get(i + 7));
+            }
+            if (!children.isEmpty()) {
+                jobs.get(i).getPublishersList().add(new BuildTrigger(children, Result.SUCCESS));
+            }
+        }
+        hudson.rebuildDependencyGraph();
+    }
+
+    /**
+     * Writes a shell script which counts its runs, reads the graph and writes a tiny output
+     */
+    private File createDotStub() throws IOException, InterruptedException {
+        File dir = createTmpDir();
+        dotRuns = new File(dir, "runs");
+        FileUtils.writeStringToFile(dotRuns, "");
+        File stub = new File(dir, "dot");
+        FileUtils.writeStringToFile(stub, "#!/bin/sh\n"
+                + "echo run >> '" + dotRuns.getAbsolutePath() + "'\n"
+                + "cat > /dev/null\n"
+                + "sleep " + System.getProperty("depgraph.loadTest.dotSeconds", "0") + "\n"
+                + "written=\n"
+                + "for arg in \"$@\"; do\n"
+                + "  case \"$arg\" in\n"
+                + "    -o*) printf stub > \"${arg#-o}\"; written=1;;\n"
+                + "  esac\n"
+                + "done\n"
+                + "[ -n \"$written\" ] || printf stub\n");
+        new FilePath(stub).chmod(0755);
+        return stub;
+    }
+
+    /**
+     * @return the url of a view graph or of the graph of a job the user may read
+     */
+    private String randomGraphUrl(Random random, int user) {
+        String type = GRAPH_TYPES[random.nextInt(GRAPH_TYPES.length)];
+        if (random.nextInt(4) == 0) {
+            return "depgraph-view/graph." + type;
+        }
+        int step = user == 0 ? 1 : user + 1;
+        int job = random.nextInt((jobCount + step - 1) / step) * step;
+        return "job/" + jobName(job) + "/depgraph-view/graph." + type;
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String jobName(int i) {
+        return String.format("job-%05d", i);
+    }
+
+    private static String userName(int user) {
+        return "user" + user;
+    }
+}
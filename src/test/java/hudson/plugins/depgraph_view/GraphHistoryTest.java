@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.DependencyGraph.Dependency;
+import hudson.plugins.depgraph_view.GraphHistory.GraphState;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+
+public class GraphHistoryTest extends TestCase {
+    private final TestGraph graph = new TestGraph("a->b", "b->c", "x->y");
+
+    public void testDeltaListsAddedAndRemovedNodesAndEdges() throws IOException {
+        GraphState older = state("a", "b", "c");
+        GraphState newer = state("b", "c", "x", "y");
+        String delta = delta(newer, older);
+        assertTrue(delta, delta.startsWith("{\"version\":\"" + newer.getVersion() + "\","));
+        assertTrue(delta, delta.contains("\"addedNodes\":[{\"name\":\"x\",\"url\":\"http://hudson/job/x/\"},"
+                + "{\"name\":\"y\",\"url\":\"http://hudson/job/y/\"}]"));
+        assertTrue(delta, delta.contains("\"removedNodes\":[\"a\"]"));
+        assertTrue(delta, delta.contains("\"addedEdges\":[[\"x\",\"y\"]]"));
+        assertTrue(delta, delta.contains("\"removedEdges\":[[\"a\",\"b\"]]"));
+    }
+
+    public void testDeltaOfEqualStatesIsEmpty() throws IOException {
+        String delta = delta(state("a", "b"), state("b", "a"));
+        assertTrue(delta, delta.contains("\"addedNodes\":[]"));
+        assertTrue(delta, delta.contains("\"removedNodes\":[]"));
+        assertTrue(delta, delta.contains("\"addedEdges\":[]"));
+        assertTrue(delta, delta.contains("\"removedEdges\":[]"));
+    }
+
+    public void testVersionDependsOnTheContentOnly() {
+        assertEquals(state("a", "b", "c").getVersion(), state("c", "b", "a").getVersion());
+        assertFalse(state("a", "b").getVersion().equals(state("a", "b", "c").getVersion()));
+    }
+
+    public void testFullAndUnchanged() throws IOException {
+        GraphState state = state("a", "b");
+        StringWriter full = new StringWriter();
+        state.writeFull(full);
+        assertEquals("{\"version\":\"" + state.getVersion() + "\",\"full\":true,\n"
+                + "\"nodes\":[{\"name\":\"a\",\"url\":\"http://hudson/job/a/\"},{\"name\":\"b\",\"url\":\"http://hudson/job/b/\"}],\n"
+                + "\"edges\":[[\"a\",\"b\"]]}", full.toString());
+        StringWriter unchanged = new StringWriter();
+        state.writeUnchanged(unchanged);
+        assertEquals("{\"version\":\"" + state.getVersion() + "\",\"unchanged\":true}", unchanged.toString());
+    }
+
+    public void testFindsKeptVersions() {
+        GraphHistory history = new GraphHistory(1024 * 1024);
+        GraphState first = history.add("view", state("a", "b"), "1");
+        GraphState second = history.add("view", state("a", "b", "c"), "2");
+        assertSame(first, history.find("view", first.getVersion()));
+        assertSame(second, history.find("view", second.getVersion()));
+        assertNull(history.find("other", first.getVersion()));
+        assertSame(second, history.getLatest("view", "2"));
+        assertNull(history.getLatest("view", "1"));
+        assertNull(history.getLatest("other", "2"));
+    }
+
+    public void testSharesEqualStatesOfDifferentGraphs() {
+        GraphHistory history = new GraphHistory(1024 * 1024);
+        GraphState kept = history.add("view", state("a", "b"), "1");
+        assertSame(kept, history.add("job", state("a", "b"), "1"));
+        assertEquals(1, history.getStateCount());
+        assertEquals(kept.getSize(), history.getSizeInBytes());
+    }
+
+    public void testEvictsTheOldestStates() {
+        GraphState first = state("a", "b");
+        GraphState second = state("a", "b", "c");
+        GraphHistory history = new GraphHistory(first.getSize() + second.getSize() - 1);
+        history.add("view", first, "1");
+        history.add("view", second, "2");
+        assertNull(history.find("view", first.getVersion()));
+        assertSame(second, history.find("view", second.getVersion()));
+        assertEquals(second.getSize(), history.getSizeInBytes());
+    }
+
+    private GraphState state(String... names) {
+        return new GraphState(graph.projects(names), dependencies(names), "http://hudson/");
+    }
+
+    /**
+     * @return the dependencies between the named projects
+     */
+    private Set<Dependency> dependencies(String... names) {
+        Set<Dependency> deps = new HashSet<Dependency>();
+        Set<String> included = TestGraph.set(names);
+        for (Dependency dep : graph.allDependencies()) {
+            if (included.contains(dep.getUpstreamProject().getName())
+                    && included.contains(dep.getDownstreamProject().getName())) {
+                deps.add(dep);
+            }
+        }
+        return deps;
+    }
+
+    private static String delta(GraphState newer, GraphState older) throws IOException {
+        StringWriter writer = new StringWriter();
+        newer.writeDelta(writer, older);
+        return writer.toString();
+    }
+}
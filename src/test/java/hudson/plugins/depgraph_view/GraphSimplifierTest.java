@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractProject;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static hudson.plugins.depgraph_view.TestGraph.edges;
+import static hudson.plugins.depgraph_view.TestGraph.names;
+import static hudson.plugins.depgraph_view.TestGraph.set;
+
+public class GraphSimplifierTest extends TestCase {
+
+    private static GraphSimplifier simplify(TestGraph graph, boolean reduce, boolean collapse) {
+        return new GraphSimplifier(graph.allProjects(), graph.allDependencies(), reduce, collapse);
+    }
+
+    public void testWithoutOptionsKeepsTheGraph() {
+        TestGraph graph = new TestGraph("a->b", "b->c", "a->c", "c->a");
+        GraphSimplifier simplifier = simplify(graph, false, false);
+        assertEquals(set("a", "b", "c"), names(simplifier.getProjects()));
+        assertEquals(set("a->b", "b->c", "a->c", "c->a"), edges(simplifier.getDependencies()));
+        assertTrue(simplifier.getCollapsed().isEmpty());
+    }
+
+    public void testReduceRemovesEdgesImpliedByLongerPaths() {
+        TestGraph graph = new TestGraph("a->b", "b->c", "c->d", "a->c", "a->d", "b->d");
+        GraphSimplifier simplifier = simplify(graph, true, false);
+        assertEquals(set("a->b", "b->c", "c->d"), edges(simplifier.getDependencies()));
+    }
+
+    public void testReduceKeepsParallelPaths() {
+        TestGraph graph = new TestGraph("a->b", "a->c", "b->d", "c->d", "a->d");
+        GraphSimplifier simplifier = simplify(graph, true, false);
+        assertEquals(set("a->b", "a->c", "b->d", "c->d"), edges(simplifier.getDependencies()));
+    }
+
+    public void testReduceWithoutCollapseKeepsEdgesOfCycles() {
+        TestGraph graph = new TestGraph("a->b", "b->a", "b->c", "a->c");
+        GraphSimplifier simplifier = simplify(graph, true, false);
+        // both edges leave the cycle directly, so neither is implied by a longer path
+        assertEquals(set("a->b", "b->a", "a->c", "b->c"), edges(simplifier.getDependencies()));
+    }
+
+    public void testCollapseReplacesCycleBySmallestName() {
+        TestGraph graph = new TestGraph("b->c", "c->d", "d->b", "d->e", "a->c");
+        GraphSimplifier simplifier = simplify(graph, false, true);
+        assertEquals(set("a", "b", "e"), names(simplifier.getProjects()));
+        Map<AbstractProject<?,?>, List<AbstractProject<?,?>>> collapsed = simplifier.getCollapsed();
+        assertEquals(1, collapsed.size());
+        assertEquals(set("b", "c", "d"), names(collapsed.get(graph.project("b"))));
+        // edges into and out of the cycle are moved to the summary node, edges inside it are dropped
+        assertEquals(set("a->b", "b->e"), edges(simplifier.getDependencies()));
+    }
+
+    public void testCollapseMergesEdgesBetweenTheSameNodes() {
+        TestGraph graph = new TestGraph("a->b", "b->a", "a->c", "b->c", "x->y", "y->x", "a->x", "b->y");
+        GraphSimplifier simplifier = simplify(graph, false, true);
+        assertEquals(set("a", "c", "x"), names(simplifier.getProjects()));
+        assertEquals(set("a->c", "a->x"), edges(simplifier.getDependencies()));
+        assertEquals(2, simplifier.getDependencies().size());
+    }
+
+    public void testCollapseAndReduceUsePathsThroughCycles() {
+        TestGraph graph = new TestGraph("s->a", "a->b", "b->a", "b->t", "s->t");
+        GraphSimplifier simplifier = simplify(graph, true, true);
+        assertEquals(set("s", "a", "t"), names(simplifier.getProjects()));
+        assertEquals(set("s->a", "a->t"), edges(simplifier.getDependencies()));
+    }
+
+    public void testSeparateCyclesGetSeparateSummaries() {
+        TestGraph graph = new TestGraph("a->b", "b->a", "b->c", "c->d", "d->c");
+        GraphSimplifier simplifier = simplify(graph, false, true);
+        assertEquals(set("a", "c"), names(simplifier.getProjects()));
+        assertEquals(set("a", "b"), names(simplifier.getCollapsed().get(graph.project("a"))));
+        assertEquals(set("c", "d"), names(simplifier.getCollapsed().get(graph.project("c"))));
+        assertEquals(set("a->c"), edges(simplifier.getDependencies()));
+    }
+
+    public void testLongCycleDoesNotOverflowTheStack() {
+        int length = 100000;
+        List<String> edges = new ArrayList<String>();
+        for (int i = 0; i < length; i++) {
+            edges.add(name(i) + "->" + name((i + 1) % length));
+        }
+        TestGraph graph = new TestGraph(edges.toArray(new String[edges.size()]));
+        GraphSimplifier simplifier = simplify(graph, true, true);
+        assertEquals(set(name(0)), names(simplifier.getProjects()));
+        assertEquals(length, simplifier.getCollapsed().get(graph.project(name(0))).size());
+        assertTrue(simplifier.getDependencies().isEmpty());
+    }
+
+    public void testLongChainIsReducedToItself() {
+        int length = 2000;
+        List<String> edges = new ArrayList<String>();
+        for (int i = 0; i + 1 < length; i++) {
+            edges.add(name(i) + "->" + name(i + 1));
+        }
+        edges.add(name(0) + "->" + name(length - 1));
+        TestGraph graph = new TestGraph(edges.toArray(new String[edges.size()]));
+        GraphSimplifier simplifier = simplify(graph, true, false);
+        assertEquals(length - 1, simplifier.getDependencies().size());
+        assertFalse(edges(simplifier.getDependencies()).contains(name(0) + "->" + name(length - 1)));
+    }
+
+    private static String name(int i) {
+        return String.format("p%06d", i);
+    }
+}
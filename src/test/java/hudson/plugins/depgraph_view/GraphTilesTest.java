@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractProject;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static hudson.plugins.depgraph_view.TestGraph.names;
+import static hudson.plugins.depgraph_view.TestGraph.set;
+
+public class GraphTilesTest extends TestCase {
+
+    public void testLargeComponentsGetTilesOfTheirOwn() {
+        TestGraph graph = new TestGraph(chain("a", 12));
+        graph.project("lonely");
+        GraphTiles tiles = tiles(graph);
+        assertEquals(2, tiles.getTiles().size());
+        GraphTiles.GraphTile large = tiles.getTile(0);
+        assertFalse(large.isShared());
+        assertEquals(12, large.getSize());
+        assertEquals("a0", large.getComponents().get(0).getRepresentative().getName());
+        assertEquals(set("lonely"), names(tiles.getTile(1).getRepresentatives()));
+        assertNull(tiles.getTile(2));
+        assertNull(tiles.getTile(-1));
+    }
+
+    public void testSmallComponentsShareTiles() {
+        List<String> edges = new ArrayList<String>();
+        for (int i = 0; i < 40; i++) {
+            edges.add("s" + i + "->t" + i);
+        }
+        GraphTiles tiles = tiles(new TestGraph(edges.toArray(new String[edges.size()])));
+        // 40 components of 2 projects, at most 60 projects in a shared tile
+        assertEquals(2, tiles.getTiles().size());
+        assertEquals(30, tiles.getTile(0).getComponents().size());
+        assertEquals(60, tiles.getTile(0).getSize());
+        assertTrue(tiles.getTile(0).isShared());
+        assertEquals(20, tiles.getTile(1).getSize());
+        assertEquals(1, tiles.getTile(1).getIndex());
+    }
+
+    public void testComponentsAreSortedBySizeThenName() {
+        TestGraph graph = new TestGraph("b->c", "c->d", "x->y", "a->z");
+        GraphTiles.GraphTile tile = tiles(graph).getTile(0);
+        assertEquals(3, tile.getComponents().get(0).getSize());
+        assertEquals("b", tile.getComponents().get(0).getRepresentative().getName());
+        assertEquals("a", tile.getComponents().get(1).getRepresentative().getName());
+        assertEquals("x", tile.getComponents().get(2).getRepresentative().getName());
+    }
+
+    public void testUnreadableProjectsSplitComponents() {
+        // b is hidden, so a and c are separate components for the user
+        TestGraph graph = new TestGraph("a->b", "b->c", "c->d");
+        DependencyGraphIndex index = graph.index();
+        GraphTiles tiles = new GraphTiles(graph.projects("a", "c", "d"), index,
+                VisibilityCache.readableOnly(index, graph.projects("a", "c", "d")));
+        GraphTiles.GraphTile tile = tiles.getTile(0);
+        assertEquals(2, tile.getComponents().size());
+        assertEquals("c", tile.getComponents().get(0).getRepresentative().getName());
+        assertEquals(2, tile.getComponents().get(0).getSize());
+        assertEquals("a", tile.getComponents().get(1).getRepresentative().getName());
+        assertEquals(1, tile.getComponents().get(1).getSize());
+    }
+
+    public void testProjectsUnknownToTheIndexAreSingletons() {
+        TestGraph graph = new TestGraph("a->b");
+        DependencyGraphIndex index = graph.index();
+        AbstractProject<?,?> created = graph.project("created");
+        List<AbstractProject<?,?>> projects = new ArrayList<AbstractProject<?, ?>>(graph.projects("a", "b"));
+        projects.add(created);
+        GraphTiles tiles = new GraphTiles(projects, index, VisibilityCache.allReadable(index));
+        assertEquals(set("a", "created"), names(tiles.getTile(0).getRepresentatives()));
+    }
+
+    public void testPages() {
+        // 25 components of 11 projects, each in a tile of its own
+        List<String> edges = new ArrayList<String>();
+        for (int i = 0; i < GraphTiles.TILES_PER_PAGE * 2 + 1; i++) {
+            for (int j = 0; j < 10; j++) {
+                edges.add("p" + i + "-" + j + "->p" + i + "-" + (j + 1));
+            }
+        }
+        GraphTiles tiles = tiles(new TestGraph(edges.toArray(new String[edges.size()])));
+        assertEquals(GraphTiles.TILES_PER_PAGE * 2 + 1, tiles.getTiles().size());
+        GraphTiles.TilePage first = tiles.getPage(null);
+        assertEquals(0, first.getPage());
+        assertEquals(3, first.getPageCount());
+        assertEquals(GraphTiles.TILES_PER_PAGE, first.getTiles().size());
+        GraphTiles.TilePage last = tiles.getPage("7");
+        assertEquals(2, last.getPage());
+        assertEquals(1, last.getTiles().size());
+        assertEquals(0, tiles.getPage("x").getPage());
+        assertEquals(0, tiles.getPage("-1").getPage());
+    }
+
+    private static GraphTiles tiles(TestGraph graph) {
+        DependencyGraphIndex index = graph.index();
+        return new GraphTiles(graph.allProjects(), index, VisibilityCache.allReadable(index));
+    }
+
+    /**
+     * @return the edges of a chain of the given number of projects
+     */
+    private static String[] chain(String prefix, int length) {
+        String[] edges = new String[length - 1];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = prefix + i + "->" + prefix + (i + 1);
+        }
+        return edges;
+    }
+}
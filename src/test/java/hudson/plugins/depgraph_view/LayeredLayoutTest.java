@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import junit.framework.TestCase;
+
+public class LayeredLayoutTest extends TestCase {
+    private static final double DELTA = 0.001;
+
+    private static int[] widths(int count) {
+        int[] widths = new int[count];
+        for (int i = 0; i < count; i++) {
+            widths[i] = 60;
+        }
+        return widths;
+    }
+
+    public void testChainIsLaidOutTopDown() {
+        LayeredLayout layout = new LayeredLayout(3, new int[]{0, 1}, new int[]{1, 2}, widths(3));
+        assertTrue(layout.getY(0) < layout.getY(1));
+        assertTrue(layout.getY(1) < layout.getY(2));
+        assertEquals(layout.getX(0), layout.getX(1), DELTA);
+        assertEquals(layout.getX(1), layout.getX(2), DELTA);
+    }
+
+    public void testEdgesRunFromTheBottomOfTheSourceToTheTopOfTheTarget() {
+        LayeredLayout layout = new LayeredLayout(3, new int[]{0, 0}, new int[]{1, 2}, widths(3));
+        for (int e = 0; e < 2; e++) {
+            double[] points = layout.getEdgePoints(e);
+            int target = e + 1;
+            assertEquals(layout.getX(0), points[0], DELTA);
+            assertEquals(layout.getY(0) + LayeredLayout.NODE_HEIGHT / 2.0, points[1], DELTA);
+            assertEquals(layout.getX(target), points[points.length - 2], DELTA);
+            assertEquals(layout.getY(target) - LayeredLayout.NODE_HEIGHT / 2.0, points[points.length - 1], DELTA);
+        }
+    }
+
+    public void testNodesOfALayerDoNotOverlap() {
+        int[] widths = {60, 120, 80, 200};
+        LayeredLayout layout = new LayeredLayout(4, new int[]{0, 0, 0}, new int[]{1, 2, 3}, widths);
+        for (int i = 1; i < 4; i++) {
+            for (int j = i + 1; j < 4; j++) {
+                assertEquals(layout.getY(i), layout.getY(j), DELTA);
+                double distance = Math.abs(layout.getX(i) - layout.getX(j));
+                assertTrue("nodes " + i + " and " + j + " overlap", distance >= (widths[i] + widths[j]) / 2.0);
+            }
+        }
+    }
+
+    public void testCyclesAreLaidOutWithEdgesInTheirDirection() {
+        LayeredLayout layout = new LayeredLayout(3, new int[]{0, 1, 2}, new int[]{1, 2, 0}, widths(3));
+        for (int e = 0; e < 3; e++) {
+            int source = e;
+            int target = (e + 1) % 3;
+            double[] points = layout.getEdgePoints(e);
+            assertEquals(layout.getX(source), points[0], DELTA);
+            assertEquals(layout.getX(target), points[points.length - 2], DELTA);
+            // the reversed edge starts at the top of its source and ends at the bottom of its target
+            double sourceY = layout.getY(source) < layout.getY(target)
+                    ? layout.getY(source) + LayeredLayout.NODE_HEIGHT / 2.0
+                    : layout.getY(source) - LayeredLayout.NODE_HEIGHT / 2.0;
+            assertEquals(sourceY, points[1], DELTA);
+        }
+    }
+
+    public void testLongEdgesBendThroughEachLayer() {
+        LayeredLayout layout = new LayeredLayout(4, new int[]{0, 1, 2, 0}, new int[]{1, 2, 3, 3}, widths(4));
+        // 0 -> 3 spans three layers, so it has two points in between
+        assertEquals(8, layout.getEdgePoints(3).length);
+        assertEquals(4, layout.getEdgePoints(0).length);
+    }
+
+    public void testSelfLoopsHaveNoPoints() {
+        LayeredLayout layout = new LayeredLayout(1, new int[]{0}, new int[]{0}, widths(1));
+        assertNull(layout.getEdgePoints(0));
+    }
+
+    public void testLayersAreAsHighAsTheirHighestNode() {
+        int[] heights = {LayeredLayout.NODE_HEIGHT, 100, LayeredLayout.NODE_HEIGHT, LayeredLayout.NODE_HEIGHT};
+        LayeredLayout layout = new LayeredLayout(4, new int[]{0, 0, 1, 2}, new int[]{1, 2, 3, 3}, widths(4), heights);
+        assertEquals(100, layout.getNodeHeight(1));
+        assertEquals(layout.getY(1), layout.getY(2), DELTA);
+        assertTrue(layout.getY(1) - 50 > layout.getY(0) + LayeredLayout.NODE_HEIGHT / 2.0);
+        assertTrue(layout.getY(3) - LayeredLayout.NODE_HEIGHT / 2.0 > layout.getY(1) + 50);
+        double[] points = layout.getEdgePoints(2);
+        assertEquals(layout.getY(1) + 50, points[1], DELTA);
+        assertTrue(layout.getHeight() >= layout.getY(3) + LayeredLayout.NODE_HEIGHT / 2.0);
+    }
+
+    public void testLayoutContainsAllNodes() {
+        int[] widths = {60, 120, 80, 200, 40};
+        LayeredLayout layout = new LayeredLayout(5, new int[]{0, 0, 1, 3}, new int[]{1, 2, 3, 4}, widths);
+        for (int n = 0; n < 5; n++) {
+            assertTrue(layout.getX(n) - widths[n] / 2.0 >= 0);
+            assertTrue(layout.getX(n) + widths[n] / 2.0 <= layout.getWidth());
+            assertTrue(layout.getY(n) - LayeredLayout.NODE_HEIGHT / 2.0 >= 0);
+            assertTrue(layout.getY(n) + LayeredLayout.NODE_HEIGHT / 2.0 <= layout.getHeight());
+        }
+    }
+}
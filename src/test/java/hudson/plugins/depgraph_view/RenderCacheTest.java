@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import junit.framework.TestCase;
+
+public class RenderCacheTest extends TestCase {
+    private final RenderCache cache = new RenderCache(10);
+
+    public void testEvictsLeastRecentlyUsed() {
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        // a is used again, so b is the least recently used
+        assertNotNull(cache.get("a"));
+        cache.put("c", new byte[4]);
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(8, cache.getSizeInBytes());
+        assertEquals(2, cache.getEntryCount());
+    }
+
+    public void testEvictsUntilTheOutputFits() {
+        cache.put("a", new byte[3]);
+        cache.put("b", new byte[3]);
+        cache.put("c", new byte[3]);
+        cache.put("d", new byte[9]);
+        assertEquals(1, cache.getEntryCount());
+        assertTrue(cache.contains("d"));
+        assertEquals(9, cache.getSizeInBytes());
+    }
+
+    public void testReplacingAnEntryCountsOnlyTheNewOutput() {
+        cache.put("a", new byte[6]);
+        cache.put("a", new byte[2]);
+        cache.put("b", new byte[8]);
+        assertTrue(cache.contains("a"));
+        assertEquals(10, cache.getSizeInBytes());
+    }
+
+    public void testOutputLargerThanTheCacheIsNotStored() {
+        cache.put("a", new byte[4]);
+        cache.put("huge", new byte[11]);
+        assertFalse(cache.contains("huge"));
+        assertTrue(cache.contains("a"));
+        assertEquals(4, cache.getSizeInBytes());
+    }
+
+    public void testContainsDoesNotCountOrTouch() {
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        assertTrue(cache.contains("a"));
+        cache.put("c", new byte[4]);
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.getHits());
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    public void testClear() {
+        cache.put("a", new byte[4]);
+        cache.clear();
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSizeInBytes());
+    }
+}
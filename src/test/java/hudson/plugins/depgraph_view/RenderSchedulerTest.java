@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.Proc;
+import hudson.plugins.depgraph_view.RenderScheduler.RenderRejectedException;
+import junit.framework.TestCase;
+
+public class RenderSchedulerTest extends TestCase {
+    private final RenderScheduler scheduler = new RenderScheduler();
+
+    public void testSlotsBelowTheLimitAreGrantedAtOnce() throws Exception {
+        scheduler.acquire(2, 0, 1000);
+        scheduler.acquire(2, 0, 1000);
+        assertEquals(2, scheduler.getRunning());
+        assertEquals(0, scheduler.getWaiting());
+        scheduler.release();
+        assertEquals(1, scheduler.getRunning());
+    }
+
+    public void testRendersBeyondTheQueueAreRejected() throws Exception {
+        scheduler.acquire(1, 0, 1000);
+        try {
+            scheduler.acquire(1, 0, 1000);
+            fail("the queue holds no render");
+        } catch (RenderRejectedException e) {
+            // expected
+        }
+        assertEquals(1, scheduler.getRunning());
+        assertEquals(0, scheduler.getWaiting());
+    }
+
+    public void testWaitingRenderIsRejectedAfterTheTimeout() throws Exception {
+        scheduler.acquire(1, 1, 1000);
+        long start = System.currentTimeMillis();
+        try {
+            scheduler.acquire(1, 1, 100);
+            fail("no slot became free");
+        } catch (RenderRejectedException e) {
+            // expected
+        }
+        assertTrue(System.currentTimeMillis() - start >= 100);
+        assertEquals(0, scheduler.getWaiting());
+    }
+
+    public void testReleaseHandsTheSlotToAWaitingRender() throws Exception {
+        scheduler.acquire(1, 1, 1000);
+        final Exception[] failure = new Exception[1];
+        Thread waiting = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    scheduler.acquire(1, 1, 10000);
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            }
+        };
+        waiting.start();
+        while (scheduler.getWaiting() == 0) {
+            Thread.sleep(10);
+        }
+        try {
+            scheduler.acquire(1, 1, 1000);
+            fail("the queue is full");
+        } catch (RenderRejectedException e) {
+            // expected
+        }
+        scheduler.release();
+        waiting.join(10000);
+        assertNull(failure[0]);
+        assertEquals(1, scheduler.getRunning());
+        assertEquals(0, scheduler.getWaiting());
+    }
+
+    public void testProcessExceedingTheTimeoutIsKilled() throws Exception {
+        StubProc proc = new StubProc();
+        RenderScheduler.Kill kill = scheduler.killAfter(proc, 50);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (proc.isAlive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(proc.isAlive());
+        assertTrue(kill.isKilled());
+    }
+
+    public void testFinishedProcessIsNotKilled() throws Exception {
+        StubProc proc = new StubProc();
+        proc.alive = false;
+        RenderScheduler.Kill kill = scheduler.killAfter(proc, 0);
+        Thread.sleep(200);
+        assertFalse(kill.isKilled());
+        assertFalse(proc.killed);
+    }
+
+    private static class StubProc extends Proc {
+        volatile boolean alive = true;
+        volatile boolean killed = false;
+
+        @Override
+        public boolean isAlive() {
+            return alive;
+        }
+
+        @Override
+        public void kill() {
+            killed = true;
+            alive = false;
+        }
+
+        @Override
+        public int join() {
+            return killed ? 143 : 0;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTest extends TestCase {
+    private final SingleFlight<String> flights = new SingleFlight<String>();
+    private final AtomicInteger runs = new AtomicInteger();
+
+    /**
+     * Computation which counts its runs and waits for the latch before it returns
+     */
+    private Callable<String> computation(final CountDownLatch started, final CountDownLatch finish) {
+        return new Callable<String>() {
+            public String call() throws Exception {
+                runs.incrementAndGet();
+                started.countDown();
+                finish.await(10, TimeUnit.SECONDS);
+                return "result";
+            }
+        };
+    }
+
+    /**
+     * Runs the computation in a new thread, putting the result or the exception into the array
+     */
+    private Thread execute(final String key, final Callable<String> computation, final Object[] result) {
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    result[0] = flights.execute(key, computation);
+                } catch (Exception e) {
+                    result[0] = e;
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    public void testConcurrentCallersOfTheSameKeyShareOneRun() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Object[] first = new Object[1];
+        Object[] second = new Object[1];
+        Thread firstThread = execute("key", computation(started, finish), first);
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Thread secondThread = execute("key", computation(new CountDownLatch(1), finish), second);
+        // the second caller is waiting for the running flight
+        while (secondThread.getState() != Thread.State.WAITING && secondThread.isAlive()) {
+            Thread.sleep(10);
+        }
+        finish.countDown();
+        firstThread.join(10000);
+        secondThread.join(10000);
+        assertEquals("result", first[0]);
+        assertEquals("result", second[0]);
+        assertEquals(1, runs.get());
+    }
+
+    public void testCallersOfDifferentKeysDoNotShare() throws Exception {
+        CountDownLatch finish = new CountDownLatch(1);
+        finish.countDown();
+        flights.execute("a", computation(new CountDownLatch(1), finish));
+        flights.execute("b", computation(new CountDownLatch(1), finish));
+        assertEquals(2, runs.get());
+    }
+
+    public void testLaterCallersRunAgain() throws Exception {
+        CountDownLatch finish = new CountDownLatch(1);
+        finish.countDown();
+        flights.execute("key", computation(new CountDownLatch(1), finish));
+        flights.execute("key", computation(new CountDownLatch(1), finish));
+        assertEquals(2, runs.get());
+    }
+
+    public void testExceptionIsThrownToTheCaller() throws Exception {
+        try {
+            flights.execute("key", new Callable<String>() {
+                public String call() throws Exception {
+                    throw new IOException("dot failed");
+                }
+            });
+            fail("the exception of the computation is thrown");
+        } catch (IOException e) {
+            assertEquals("dot failed", e.getMessage());
+        }
+        // a failed flight is not kept
+        assertEquals("again", flights.execute("key", new Callable<String>() {
+            public String call() {
+                return "again";
+            }
+        }));
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import hudson.model.AbstractItem;
+import hudson.model.AbstractProject;
+import hudson.model.DependencyGraph;
+import hudson.model.DependencyGraph.Dependency;
+import hudson.model.Build;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Project;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Small dependency graph for the tests, built without a running Hudson like the
+ * graphs of the benchmarks: the projects and the graph are instantiated without
+ * calling their constructors and only get the fields which are used by this plugin.
+ */
+class TestGraph {
+    private static final Objenesis OBJENESIS = new ObjenesisStd();
+    private static final ItemGroup<Item> PARENT = new TestItemGroup();
+
+    private final Map<String, AbstractProject<?,?>> projects = new LinkedHashMap<String, AbstractProject<?, ?>>();
+    private final DependencyGraph graph = OBJENESIS.newInstance(DependencyGraph.class);
+    private DependencyGraphIndex index;
+
+    /**
+     * @param edges edges like "a->b", the projects are created as they are named
+     */
+    TestGraph(String... edges) {
+        setField(DependencyGraph.class, graph, "forward", new HashMap<Object, Object>());
+        setField(DependencyGraph.class, graph, "backward", new HashMap<Object, Object>());
+        for (String edge : edges) {
+            String[] ends = edge.split("->");
+            graph.addDependency(new Dependency(project(ends[0]), project(ends[1])));
+        }
+    }
+
+    /**
+     * @return the project with the given name, created if it does not exist yet
+     */
+    AbstractProject<?,?> project(String name) {
+        AbstractProject<?,?> project = projects.get(name);
+        if (project == null) {
+            TestProject newProject = OBJENESIS.newInstance(TestProject.class);
+            setField(AbstractItem.class, newProject, "name", name);
+            setField(AbstractItem.class, newProject, "parent", PARENT);
+            projects.put(name, newProject);
+            project = newProject;
+        }
+        return project;
+    }
+
+    Set<AbstractProject<?,?>> projects(String... names) {
+        Set<AbstractProject<?,?>> result = new HashSet<AbstractProject<?, ?>>();
+        for (String name : names) {
+            result.add(project(name));
+        }
+        return result;
+    }
+
+    Set<AbstractProject<?,?>> allProjects() {
+        return new HashSet<AbstractProject<?, ?>>(projects.values());
+    }
+
+    /**
+     * @return all dependencies of the graph
+     */
+    Set<Dependency> allDependencies() {
+        Set<Dependency> deps = new HashSet<Dependency>();
+        for (AbstractProject<?,?> project : projects.values()) {
+            deps.addAll(graph.getDownstreamDependencies(project));
+        }
+        return deps;
+    }
+
+    DependencyGraphIndex index() {
+        if (index == null) {
+            index = new DependencyGraphIndex(graph, new ArrayList<AbstractProject<?, ?>>(projects.values()));
+        }
+        return index;
+    }
+
+    /**
+     * @return the graph around the start projects, with all projects readable
+     */
+    CalculateDeps calculate(int maxDepth, CalculateDeps.Direction direction, String... startNames) {
+        List<AbstractProject<?,?>> starts = new ArrayList<AbstractProject<?, ?>>();
+        for (String name : startNames) {
+            starts.add(project(name));
+        }
+        CalculateDeps calculateDeps = new CalculateDeps(starts, maxDepth, direction, index(),
+                VisibilityCache.allReadable(index()));
+        calculateDeps.calculateNodesAndDependencies();
+        return calculateDeps;
+    }
+
+    /**
+     * @return the names of the projects, sorted
+     */
+    static Set<String> names(Collection<? extends AbstractProject<?,?>> projects) {
+        Set<String> names = new TreeSet<String>();
+        for (AbstractProject<?,?> project : projects) {
+            names.add(project.getName());
+        }
+        return names;
+    }
+
+    /**
+     * @return the dependencies as "a->b", sorted
+     */
+    static Set<String> edges(Collection<Dependency> deps) {
+        Set<String> edges = new TreeSet<String>();
+        for (Dependency dep : deps) {
+            edges.add(dep.getUpstreamProject().getName() + "->" + dep.getDownstreamProject().getName());
+        }
+        return edges;
+    }
+
+    static Set<String> set(String... values) {
+        return new TreeSet<String>(Arrays.asList(values));
+    }
+
+    private static void setField(Class<?> declaringClass, Object target, String name, Object value) {
+        try {
+            Field field = declaringClass.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Project whose parent is the {@link TestItemGroup}, where a free style project would
+     * take Hudson as its parent
+     */
+    static class TestProject extends Project<TestProject, TestBuild> {
+        private TestProject() {
+            super(PARENT, "");
+        }
+
+        @Override
+        protected Class<TestBuild> getBuildClass() {
+            return TestBuild.class;
+        }
+    }
+
+    abstract static class TestBuild extends Build<TestProject, TestBuild> {
+        private TestBuild(TestProject project) throws IOException {
+            super(project);
+        }
+    }
+
+    /**
+     * Parent of the test projects in place of Hudson, whose initialization needs
+     * a full Hudson environment. Like Hudson it is the root, so the full names
+     * of the projects are their names.
+     */
+    private static class TestItemGroup implements ItemGroup<Item> {
+        public String getFullName() {
+            return "";
+        }
+
+        public String getFullDisplayName() {
+            return "";
+        }
+
+        public String getDisplayName() {
+            return "Test";
+        }
+
+        public Collection<Item> getItems() {
+            return new ArrayList<Item>();
+        }
+
+        public String getUrl() {
+            return "";
+        }
+
+        public String getUrlChildPrefix() {
+            return "job";
+        }
+
+        public Item getItem(String name) {
+            return null;
+        }
+
+        public File getRootDir() {
+            return new File("test");
+        }
+
+        public File getRootDirFor(Item child) {
+            return new File(getRootDir(), child.getName());
+        }
+
+        public void onRenamed(Item item, String oldName, String newName) {
+        }
+
+        public void save() {
+        }
+    }
+}
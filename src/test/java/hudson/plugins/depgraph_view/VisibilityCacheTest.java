@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 depgraph-view contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package hudson.plugins.depgraph_view;
+
+import junit.framework.TestCase;
+
+import static hudson.plugins.depgraph_view.CalculateDeps.Direction.BOTH;
+import static hudson.plugins.depgraph_view.CalculateDeps.Direction.DOWNSTREAM;
+import static hudson.plugins.depgraph_view.CalculateDeps.UNLIMITED_DEPTH;
+import static hudson.plugins.depgraph_view.TestGraph.edges;
+import static hudson.plugins.depgraph_view.TestGraph.names;
+import static hudson.plugins.depgraph_view.TestGraph.set;
+
+public class VisibilityCacheTest extends TestCase {
+    // a -> b -> c -> d with a -> x -> d
+    private final TestGraph graph = new TestGraph("a->b", "b->c", "c->d", "a->x", "x->d");
+
+    public void testUnreadableProjectsAreNotShown() {
+        CalculateDeps deps = calculate(UNLIMITED_DEPTH, BOTH, "a", "a", "c", "d", "x");
+        assertEquals(set("a", "c", "d", "x"), names(deps.getProjects()));
+        assertEquals(set("a->x", "x->d", "c->d"), edges(deps.getDependencies()));
+    }
+
+    public void testTraversalDoesNotPassUnreadableProjects() {
+        // the path through x is hidden, the one through b is open
+        CalculateDeps deps = calculate(UNLIMITED_DEPTH, DOWNSTREAM, "a", "a", "b", "c", "d");
+        assertEquals(set("a", "b", "c", "d"), names(deps.getProjects()));
+        assertEquals(set("a->b", "b->c", "c->d"), edges(deps.getDependencies()));
+    }
+
+    public void testHiddenProjectSplitsTheComponent() {
+        CalculateDeps deps = calculate(UNLIMITED_DEPTH, BOTH, "a", "a", "b");
+        assertEquals(set("a", "b"), names(deps.getProjects()));
+        assertEquals(set("a->b"), edges(deps.getDependencies()));
+    }
+
+    public void testReadableComponentIsTakenWhole() {
+        DependencyGraphIndex index = graph.index();
+        VisibilityCache visibility = VisibilityCache.allReadable(index);
+        CalculateDeps deps = new CalculateDeps(graph.projects("d"), UNLIMITED_DEPTH, BOTH, index, visibility);
+        deps.calculateNodesAndDependencies();
+        assertEquals(set("a", "b", "c", "d", "x"), names(deps.getProjects()));
+        assertTrue(visibility.isReadable(index.getId(graph.project("x"))));
+    }
+
+    /**
+     * @param start the project from which the graph is calculated
+     * @param readable the projects the user may read
+     */
+    private CalculateDeps calculate(int depth, CalculateDeps.Direction direction, String start, String... readable) {
+        DependencyGraphIndex index = graph.index();
+        CalculateDeps deps = new CalculateDeps(graph.projects(start), depth, direction, index,
+                VisibilityCache.readableOnly(index, graph.projects(readable)));
+        deps.calculateNodesAndDependencies();
+        return deps;
+    }
+}